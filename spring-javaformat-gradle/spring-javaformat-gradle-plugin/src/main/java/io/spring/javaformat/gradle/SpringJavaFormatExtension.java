@@ -42,6 +42,14 @@ public abstract class SpringJavaFormatExtension {
 		this.checkstyle.getConfigureDependencies().convention(true);
 	}
 
+	/**
+	 * Property that contains the git revision (for example {@code origin/main}) to ratchet
+	 * from. When set, only files that have changed since the revision, or that are
+	 * untracked, are formatted and checked.
+	 * @return the property
+	 */
+	public abstract Property<String> getRatchetFrom();
+
 	public Checkstyle getCheckstyle() {
 		return this.checkstyle;
 	}
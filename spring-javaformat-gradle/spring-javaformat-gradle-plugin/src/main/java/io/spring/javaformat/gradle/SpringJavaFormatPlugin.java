@@ -29,11 +29,13 @@ import org.gradle.api.plugins.JavaBasePlugin;
 import org.gradle.api.plugins.JavaPluginExtension;
 import org.gradle.api.plugins.quality.CheckstyleExtension;
 import org.gradle.api.plugins.quality.CheckstylePlugin;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.SourceSet;
 import org.gradle.api.tasks.TaskContainer;
 import org.gradle.api.tasks.TaskProvider;
 
 import io.spring.javaformat.config.JavaFormatConfig;
+import io.spring.javaformat.config.JavaFormatConfigResolver;
 import io.spring.javaformat.formatter.Formatter;
 import io.spring.javaformat.gradle.tasks.CheckFormat;
 import io.spring.javaformat.gradle.tasks.Format;
@@ -49,12 +51,18 @@ public class SpringJavaFormatPlugin implements Plugin<Project> {
 
 	private Project project;
 
+	private Provider<JavaFormatConfig> javaFormatConfig;
+
+	private SpringJavaFormatExtension extension;
+
 	@Override
 	public void apply(Project project) {
 		this.project = project;
+		File projectDir = project.getProjectDir();
+		this.javaFormatConfig = project.provider(() -> JavaFormatConfigResolver.getShared().resolve(projectDir));
+		this.extension = registerExtension();
 		addSourceTasks();
-		SpringJavaFormatExtension extension = registerExtension();
-		new CheckstyleConfigurer(project, extension).apply();
+		new CheckstyleConfigurer(project, this.extension).apply();
 	}
 
 	private SpringJavaFormatExtension registerExtension() {
@@ -81,8 +89,11 @@ public class SpringJavaFormatPlugin implements Plugin<Project> {
 			TaskProvider<Task> formatAllProvider) {
 		TaskProvider<CheckFormat> checkTaskProvider = addFormatterTask(sourceSet, CheckFormat.class, CheckFormat.NAME,
 				CheckFormat.DESCRIPTION);
-		checkTaskProvider.configure((checkTask) -> checkTask.setReportLocation(
-				new File(this.project.getBuildDir(), "reports/format/" + sourceSet.getName() + "/check-format.txt")));
+		checkTaskProvider.configure((checkTask) -> checkTask.setReportLocation(this.project.getLayout()
+			.getBuildDirectory()
+			.file("reports/format/" + sourceSet.getName() + "/check-format.txt")
+			.get()
+			.getAsFile()));
 		checkAllProvider.configure((checkAll) -> checkAll.dependsOn(checkTaskProvider));
 		TaskProvider<Format> formatTaskProvider = addFormatterTask(sourceSet, Format.class, Format.NAME,
 				Format.DESCRIPTION);
@@ -97,9 +108,9 @@ public class SpringJavaFormatPlugin implements Plugin<Project> {
 		provider.configure((task) -> {
 			task.setDescription(desc + " for " + sourceSet.getName());
 			task.setSource(sourceSet.getAllJava());
-			JavaFormatConfig config = JavaFormatConfig.findFrom(this.project.getProjectDir());
-			task.getIndentationStyle().convention(config.getIndentationStyle());
-			task.getJavaBaseline().convention(config.getJavaBaseline());
+			task.getIndentationStyle().convention(this.javaFormatConfig.map(JavaFormatConfig::getIndentationStyle));
+			task.getJavaBaseline().convention(this.javaFormatConfig.map(JavaFormatConfig::getJavaBaseline));
+			task.getRatchetFrom().convention(this.extension.getRatchetFrom());
 		});
 		return provider;
 	}
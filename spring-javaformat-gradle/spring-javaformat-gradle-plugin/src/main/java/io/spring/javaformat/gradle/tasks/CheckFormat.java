@@ -18,18 +18,20 @@ package io.spring.javaformat.gradle.tasks;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.gradle.api.tasks.CacheableTask;
 import org.gradle.api.tasks.OutputFile;
 import org.gradle.api.tasks.TaskAction;
 import org.gradle.api.tasks.VerificationException;
-
-import io.spring.javaformat.formatter.FileEdit;
+import org.gradle.work.FileChange;
+import org.gradle.work.InputChanges;
 
 /**
  * {@link FormatterTask} to check formatting.
@@ -37,7 +39,7 @@ import io.spring.javaformat.formatter.FileEdit;
  * @author Phillip Webb
  */
 @CacheableTask
-public class CheckFormat extends FormatterTask {
+public abstract class CheckFormat extends FormatterTask {
 
 	/**
 	 * The name of the task.
@@ -49,17 +51,25 @@ public class CheckFormat extends FormatterTask {
 	 */
 	public static final String DESCRIPTION = "Run Spring Java formatting checks";
 
+	private static final String PROBLEMS_FILE_NAME = "problems.txt";
+
 	private File reportLocation;
 
 	@TaskAction
-	public void checkFormatting() throws IOException, InterruptedException {
-		List<File> problems = formatFiles().filter(FileEdit::hasEdits)
-			.map(FileEdit::getFile)
-			.collect(Collectors.toList());
+	public void checkFormatting(InputChanges inputChanges) throws IOException, InterruptedException {
+		File problemsFile = getStateDirectory().file(PROBLEMS_FILE_NAME).get().getAsFile();
+		Set<String> problems = new TreeSet<>();
+		if (!isRatcheting() && inputChanges.isIncremental() && problemsFile.exists()) {
+			problems.addAll(Files.readAllLines(problemsFile.toPath(), StandardCharsets.UTF_8));
+		}
+		List<FileChange> changes = getSourceChanges(inputChanges);
+		changes.forEach((change) -> problems.remove(relativePath(change.getFile())));
+		checkFiles(getFilesToProcess(changes)).forEach((file) -> problems.add(relativePath(file)));
+		Files.write(problemsFile.toPath(), problems, StandardCharsets.UTF_8);
 		this.reportLocation.getParentFile().mkdirs();
 		if (!problems.isEmpty()) {
 			StringBuilder message = new StringBuilder("Formatting violations found in the following files:\n");
-			problems.stream().forEach((f) -> message.append(" * " + getProject().relativePath(f) + "\n"));
+			problems.stream().forEach((f) -> message.append(" * " + f + "\n"));
 			message.append("\nRun `format` to fix.");
 			Files.write(this.reportLocation.toPath(), Collections.singletonList(message.toString()),
 					StandardOpenOption.CREATE);
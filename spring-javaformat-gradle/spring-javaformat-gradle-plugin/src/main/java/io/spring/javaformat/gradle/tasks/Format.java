@@ -18,20 +18,17 @@ package io.spring.javaformat.gradle.tasks;
 
 import java.io.IOException;
 
-import org.gradle.api.GradleException;
-import org.gradle.api.file.FileTree;
+import org.gradle.api.file.FileCollection;
 import org.gradle.api.tasks.OutputFiles;
 import org.gradle.api.tasks.TaskAction;
-
-import io.spring.javaformat.formatter.FileEdit;
-import io.spring.javaformat.formatter.FileFormatterException;
+import org.gradle.work.InputChanges;
 
 /**
  * {@link FormatterTask} to apply formatting.
  *
  * @author Phillip Webb
  */
-public class Format extends FormatterTask {
+public abstract class Format extends FormatterTask {
 
 	/**
 	 * The name of the task.
@@ -44,18 +41,20 @@ public class Format extends FormatterTask {
 	public static final String DESCRIPTION = "Apply Spring Java formatting";
 
 	@TaskAction
-	public void format() throws IOException, InterruptedException {
-		try {
-			formatFiles().forEach(FileEdit::save);
-		}
-		catch (FileFormatterException ex) {
-			throw new GradleException("Unable to format file " + ex.getFile(), ex);
-		}
+	public void format(InputChanges inputChanges) throws IOException, InterruptedException {
+		int formatted = formatFiles(getFilesToProcess(getSourceChanges(inputChanges))).size();
+		getLogger().lifecycle("Formatted {} file{}", formatted, (formatted != 1) ? "s" : "");
 	}
 
+	/**
+	 * The formatted source files. Declaring the sources as outputs means that the task is
+	 * no longer up-to-date, and runs non-incrementally, when a source file is changed
+	 * back to content that was seen by a previous execution.
+	 * @return the formatted source files
+	 */
 	@OutputFiles
-	public FileTree getOutputFiles() {
-		return super.getSource();
+	public FileCollection getOutputFiles() {
+		return getStableSources();
 	}
 
 }
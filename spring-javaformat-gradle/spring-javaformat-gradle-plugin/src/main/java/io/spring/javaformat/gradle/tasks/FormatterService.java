@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.gradle.tasks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.gradle.api.invocation.Gradle;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import io.spring.javaformat.config.JavaFormatConfig;
+import io.spring.javaformat.formatter.FileFormatter;
+import io.spring.javaformat.formatter.FormatCache;
+import io.spring.javaformat.formatter.Formatter;
+import io.spring.javaformat.formatter.PersistentFormatCache;
+import io.spring.javaformat.formatter.PooledFormatter;
+
+/**
+ * Shared {@link BuildService} that holds pooled {@link Formatter} instances so that they
+ * can be reused by all formatter tasks in a build. The service also holds the
+ * {@link FormatCache format caches} that are shared by the work actions of a task.
+ *
+ * @author Phillip Webb
+ */
+public abstract class FormatterService implements BuildService<BuildServiceParameters.None>, AutoCloseable {
+
+	/**
+	 * The name of the shared service.
+	 */
+	public static final String NAME = "springJavaFormatFormatter";
+
+	private final Map<JavaFormatConfig, Formatter> formatters = new ConcurrentHashMap<>();
+
+	private final Map<File, PersistentFormatCache> formatCaches = new ConcurrentHashMap<>();
+
+	/**
+	 * Return a {@link FileFormatter} that uses a pooled formatter for the given config.
+	 * @param javaFormatConfig the java format config
+	 * @return the file formatter
+	 */
+	public FileFormatter getFileFormatter(JavaFormatConfig javaFormatConfig) {
+		return getFileFormatter(javaFormatConfig, FormatCache.NONE);
+	}
+
+	/**
+	 * Return a {@link FileFormatter} that uses a pooled formatter for the given config and
+	 * the given format cache.
+	 * @param javaFormatConfig the java format config
+	 * @param cache the format cache
+	 * @return the file formatter
+	 */
+	public FileFormatter getFileFormatter(JavaFormatConfig javaFormatConfig, FormatCache cache) {
+		JavaFormatConfig key = JavaFormatConfig.of(javaFormatConfig.getJavaBaseline(),
+				javaFormatConfig.getIndentationStyle());
+		Formatter formatter = this.formatters.computeIfAbsent(key, (config) -> new PooledFormatter(config,
+				PooledFormatter.DEFAULT_MAX_SIZE, PooledFormatter.DEFAULT_IDLE_TIMEOUT_MILLIS));
+		return new FileFormatter(() -> formatter, 1, key, cache);
+	}
+
+	/**
+	 * Return the {@link FormatCache} backed by the given file, loading it if necessary.
+	 * Work actions that use the same file share the same cache instance.
+	 * @param file the cache file
+	 * @return the format cache
+	 */
+	public FormatCache getFormatCache(File file) {
+		return this.formatCaches.computeIfAbsent(file.getAbsoluteFile(), PersistentFormatCache::new);
+	}
+
+	/**
+	 * Save and release the {@link FormatCache} backed by the given file. Does nothing if
+	 * the cache has not been loaded.
+	 * @param file the cache file
+	 * @throws IOException on IO error
+	 */
+	public void saveFormatCache(File file) throws IOException {
+		PersistentFormatCache cache = this.formatCaches.remove(file.getAbsoluteFile());
+		if (cache != null) {
+			cache.save();
+		}
+	}
+
+	@Override
+	public void close() {
+		this.formatters.clear();
+		this.formatCaches.clear();
+	}
+
+	/**
+	 * Register the shared service with the given {@link Gradle} instance, or return the
+	 * existing registration.
+	 * @param gradle the gradle instance
+	 * @return a provider for the service
+	 */
+	public static Provider<FormatterService> register(Gradle gradle) {
+		return gradle.getSharedServices().registerIfAbsent(NAME, FormatterService.class, (spec) -> {
+		});
+	}
+
+}
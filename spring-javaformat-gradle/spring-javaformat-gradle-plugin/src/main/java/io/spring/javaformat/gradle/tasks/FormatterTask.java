@@ -16,23 +16,44 @@
 
 package io.spring.javaformat.gradle.tasks;
 
+import java.io.File;
+import java.io.IOException;
 import java.nio.charset.Charset;
-import java.util.stream.Stream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
+import javax.inject.Inject;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileCollection;
 import org.gradle.api.file.FileTree;
+import org.gradle.api.file.FileType;
 import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
 import org.gradle.api.tasks.PathSensitive;
 import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.SourceTask;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
 
 import io.spring.javaformat.config.IndentationStyle;
 import io.spring.javaformat.config.JavaBaseline;
-import io.spring.javaformat.config.JavaFormatConfig;
-import io.spring.javaformat.formatter.FileEdit;
-import io.spring.javaformat.formatter.FileFormatter;
+import io.spring.javaformat.git.GitRepository;
 
 /**
  * Abstract base class for formatter tasks.
@@ -41,15 +62,47 @@ import io.spring.javaformat.formatter.FileFormatter;
  */
 public abstract class FormatterTask extends SourceTask {
 
+	private static final int BATCH_SIZE = 50;
+
+	private static final String FORMAT_CACHE_FILE_NAME = "format.cache";
+
 	private String encoding;
 
 	private final Property<IndentationStyle> indentationStyle;
 
 	private final Property<JavaBaseline> javaBaseline;
 
+	private final FileCollection stableSources;
+
+	private final DirectoryProperty stateDirectory;
+
+	private final Property<FormatterService> formatterService;
+
+	private final File projectDir;
+
+	private final Property<String> ratchetFrom;
+
+	private final Provider<String> ratchetCommit;
+
 	FormatterTask() {
 		this.indentationStyle = getProject().getObjects().property(IndentationStyle.class);
 		this.javaBaseline = getProject().getObjects().property(JavaBaseline.class);
+		this.stableSources = getProject().files((Callable<FileTree>) this::getSource);
+		this.projectDir = getProject().getProjectDir();
+		this.ratchetFrom = getProject().getObjects().property(String.class);
+		File projectDir = this.projectDir;
+		this.ratchetCommit = getProject().getProviders()
+			.of(GitRevisionValueSource.class, (spec) -> spec.parameters((parameters) -> {
+				parameters.getProjectDirectory().set(projectDir);
+				parameters.getRevision().set(this.ratchetFrom);
+			}));
+		this.stateDirectory = getProject().getObjects().directoryProperty();
+		this.stateDirectory
+			.convention(getProject().getLayout().getBuildDirectory().dir("spring-javaformat/" + getName()));
+		Provider<FormatterService> sharedFormatterService = FormatterService.register(getProject().getGradle());
+		this.formatterService = getProject().getObjects().property(FormatterService.class);
+		this.formatterService.convention(sharedFormatterService);
+		usesService(sharedFormatterService);
 	}
 
 	/**
@@ -88,22 +141,189 @@ public abstract class FormatterTask extends SourceTask {
 		return this.javaBaseline;
 	}
 
+	/**
+	 * The git revision to ratchet from. When set, only source files that have changed since
+	 * the revision, or that are untracked, are processed.
+	 * @return the git revision
+	 */
+	@Input
+	@Optional
+	public Property<String> getRatchetFrom() {
+		return this.ratchetFrom;
+	}
+
+	/**
+	 * The commit id that {@link #getRatchetFrom() ratchetFrom} currently resolves to.
+	 * @return the ratchet commit id
+	 */
+	@Input
+	@Optional
+	public Provider<String> getRatchetCommit() {
+		return this.ratchetCommit;
+	}
+
 	@Override
-	@InputFiles
-	@PathSensitive(PathSensitivity.RELATIVE)
+	@Internal
 	public FileTree getSource() {
 		return super.getSource();
 	}
 
 	/**
-	 * Format the source files and provide a {@link Stream} of {@link FileEdit} instances.
-	 * @return the file edits
+	 * The source files as a stable file collection that can be used to query incremental
+	 * changes.
+	 * @return the source files
+	 */
+	@InputFiles
+	@Incremental
+	@PathSensitive(PathSensitivity.RELATIVE)
+	public FileCollection getStableSources() {
+		return this.stableSources;
+	}
+
+	/**
+	 * The directory used to store state, such as the format cache, between executions.
+	 * @return the state directory
+	 */
+	@OutputDirectory
+	public DirectoryProperty getStateDirectory() {
+		return this.stateDirectory;
+	}
+
+	/**
+	 * The shared service that provides formatters.
+	 * @return the formatter service
+	 */
+	@Internal
+	public Property<FormatterService> getFormatterService() {
+		return this.formatterService;
+	}
+
+	/**
+	 * Return the {@link WorkerExecutor} used to process files.
+	 * @return the worker executor
+	 */
+	@Inject
+	protected abstract WorkerExecutor getWorkerExecutor();
+
+	/**
+	 * Format the given files using workers and return the files that were changed.
+	 * @param files the files to format
+	 * @return the changed files
+	 * @throws IOException on IO error
+	 */
+	protected final List<File> formatFiles(List<File> files) throws IOException {
+		return process(FormatterWorkAction.Action.FORMAT, files);
+	}
+
+	/**
+	 * Check the given files using workers and return the files that are not formatted.
+	 * @param files the files to check
+	 * @return the files that are not formatted
+	 * @throws IOException on IO error
+	 */
+	protected final List<File> checkFiles(List<File> files) throws IOException {
+		return process(FormatterWorkAction.Action.CHECK, files);
+	}
+
+	private List<File> process(FormatterWorkAction.Action action, List<File> files) throws IOException {
+		WorkQueue workQueue = getWorkerExecutor().noIsolation();
+		String encoding = getCharset().name();
+		File cacheFile = getStateDirectory().file(FORMAT_CACHE_FILE_NAME).get().getAsFile();
+		List<File> resultFiles = new ArrayList<>();
+		for (int i = 0; i < files.size(); i += BATCH_SIZE) {
+			List<File> batch = new ArrayList<>(files.subList(i, Math.min(i + BATCH_SIZE, files.size())));
+			File resultFile = new File(getTemporaryDir(), "batch-" + resultFiles.size() + ".txt");
+			Files.deleteIfExists(resultFile.toPath());
+			resultFiles.add(resultFile);
+			workQueue.submit(FormatterWorkAction.class, (parameters) -> {
+				parameters.getAction().set(action);
+				parameters.getFiles().from(batch);
+				parameters.getEncoding().set(encoding);
+				parameters.getJavaBaseline().set(this.javaBaseline);
+				parameters.getIndentationStyle().set(this.indentationStyle);
+				parameters.getFormatterService().set(this.formatterService);
+				parameters.getCacheFile().set(cacheFile);
+				parameters.getResultFile().set(resultFile);
+			});
+		}
+		workQueue.await();
+		this.formatterService.get().saveFormatCache(cacheFile);
+		List<File> result = new ArrayList<>();
+		for (File resultFile : resultFiles) {
+			for (String line : Files.readAllLines(resultFile.toPath(), StandardCharsets.UTF_8)) {
+				result.add(new File(line));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return the source file changes since the previous execution. All source files are
+	 * returned as added when the execution is not incremental.
+	 * @param inputChanges the input changes
+	 * @return the source file changes
+	 */
+	protected final List<FileChange> getSourceChanges(InputChanges inputChanges) {
+		return StreamSupport.stream(inputChanges.getFileChanges(this.stableSources).spliterator(), false)
+			.filter((change) -> change.getFileType() == FileType.FILE)
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * Return the added or modified source files from the given changes.
+	 * @param changes the source file changes
+	 * @return the added or modified files
 	 */
-	protected final Stream<FileEdit> formatFiles() {
-		JavaFormatConfig javaFormatConfig = JavaFormatConfig.of(this.javaBaseline.get(), this.indentationStyle.get());
-		FileFormatter formatter = new FileFormatter(javaFormatConfig);
-		Charset encoding = (getEncoding() != null ? Charset.forName(getEncoding()) : Charset.defaultCharset());
-		return formatter.formatFiles(getSource().getFiles(), encoding);
+	protected final List<File> getAddedOrModifiedFiles(List<FileChange> changes) {
+		return changes.stream()
+			.filter((change) -> change.getChangeType() != ChangeType.REMOVED)
+			.map(FileChange::getFile)
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * Return the source files that should be processed for the given changes. When
+	 * {@link #getRatchetFrom() ratcheting}, all source files that differ from the ratchet
+	 * revision are returned regardless of the changes.
+	 * @param changes the source file changes
+	 * @return the files to process
+	 * @throws IOException on IO error
+	 */
+	protected final List<File> getFilesToProcess(List<FileChange> changes) throws IOException {
+		if (!isRatcheting()) {
+			return getAddedOrModifiedFiles(changes);
+		}
+		String revision = this.ratchetCommit.getOrElse(this.ratchetFrom.get());
+		try (GitRepository repository = GitRepository.find(this.projectDir)) {
+			if (repository == null) {
+				throw new GradleException("Unable to ratchet from " + this.ratchetFrom.get() + " as " + this.projectDir
+						+ " is not in a git repository");
+			}
+			return repository.getChangedFiles(revision, this.stableSources.getFiles());
+		}
+	}
+
+	/**
+	 * Return if files are being filtered using {@link #getRatchetFrom() ratchetFrom}.
+	 * @return if ratcheting
+	 */
+	protected final boolean isRatcheting() {
+		return this.ratchetFrom.isPresent();
+	}
+
+	/**
+	 * Return the path of the given file relative to the project directory. Unlike
+	 * {@code Project.relativePath(...)} this method can be used at execution time when the
+	 * configuration cache is enabled.
+	 * @param file the file
+	 * @return the relative path
+	 */
+	protected final String relativePath(File file) {
+		return this.projectDir.toPath().relativize(file.toPath()).toString();
+	}
+
+	private Charset getCharset() {
+		return (getEncoding() != null ? Charset.forName(getEncoding()) : Charset.defaultCharset());
 	}
 
 }
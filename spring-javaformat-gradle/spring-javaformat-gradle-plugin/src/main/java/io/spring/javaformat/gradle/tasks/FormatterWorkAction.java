@@ -0,0 +1,156 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.gradle.tasks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+import io.spring.javaformat.config.IndentationStyle;
+import io.spring.javaformat.config.JavaBaseline;
+import io.spring.javaformat.config.JavaFormatConfig;
+import io.spring.javaformat.formatter.FileEdit;
+import io.spring.javaformat.formatter.FileFormatter;
+import io.spring.javaformat.formatter.FileFormatterException;
+import io.spring.javaformat.formatter.FormatCache;
+
+/**
+ * {@link WorkAction} used to check or format a batch of files. The paths of files that
+ * are not formatted (when checking) or that were changed (when formatting) are written to
+ * the result file.
+ *
+ * @author Phillip Webb
+ */
+public abstract class FormatterWorkAction implements WorkAction<FormatterWorkAction.Parameters> {
+
+	@Override
+	public void execute() {
+		Parameters parameters = getParameters();
+		JavaFormatConfig config = JavaFormatConfig.of(parameters.getJavaBaseline().get(),
+				parameters.getIndentationStyle().get());
+		Charset encoding = Charset.forName(parameters.getEncoding().get());
+		FormatterService formatterService = parameters.getFormatterService().get();
+		FormatCache cache = (parameters.getCacheFile().isPresent())
+				? formatterService.getFormatCache(parameters.getCacheFile().get().getAsFile()) : FormatCache.NONE;
+		try (FileFormatter formatter = formatterService.getFileFormatter(config, cache)) {
+			List<String> result = process(parameters.getAction().get(), formatter, parameters.getFiles().getFiles(),
+					encoding)
+				.map(File::getAbsolutePath)
+				.collect(Collectors.toList());
+			Files.write(parameters.getResultFile().get().getAsFile().toPath(), result, StandardCharsets.UTF_8);
+		}
+		catch (FileFormatterException ex) {
+			throw new GradleException("Unable to format file " + ex.getFile(), ex);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private Stream<File> process(Action action, FileFormatter formatter, Iterable<File> files, Charset encoding) {
+		if (action == Action.FORMAT) {
+			return formatter.formatFiles(files, encoding).filter(FileEdit::saveIfChanged).map(FileEdit::getFile);
+		}
+		return formatter.checkFiles(files, encoding);
+	}
+
+	/**
+	 * The action to perform.
+	 */
+	public enum Action {
+
+		/**
+		 * Check that files are formatted.
+		 */
+		CHECK,
+
+		/**
+		 * Format files.
+		 */
+		FORMAT
+
+	}
+
+	/**
+	 * {@link WorkParameters} for the action.
+	 */
+	public interface Parameters extends WorkParameters {
+
+		/**
+		 * The action to perform.
+		 * @return the action
+		 */
+		Property<Action> getAction();
+
+		/**
+		 * The files to process.
+		 * @return the files
+		 */
+		ConfigurableFileCollection getFiles();
+
+		/**
+		 * The source encoding.
+		 * @return the encoding
+		 */
+		Property<String> getEncoding();
+
+		/**
+		 * The Java baseline used for formatting.
+		 * @return the Java baseline
+		 */
+		Property<JavaBaseline> getJavaBaseline();
+
+		/**
+		 * The indentation style used for formatting.
+		 * @return the indentation style
+		 */
+		Property<IndentationStyle> getIndentationStyle();
+
+		/**
+		 * The shared formatter service.
+		 * @return the formatter service
+		 */
+		Property<FormatterService> getFormatterService();
+
+		/**
+		 * The file used to cache the content of formatted files, if any.
+		 * @return the cache file
+		 */
+		RegularFileProperty getCacheFile();
+
+		/**
+		 * The file where results are written.
+		 * @return the result file
+		 */
+		RegularFileProperty getResultFile();
+
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.gradle.tasks;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.ValueSource;
+import org.gradle.api.provider.ValueSourceParameters;
+
+import io.spring.javaformat.git.GitRepository;
+
+/**
+ * {@link ValueSource} that resolves a git revision to a commit id so that moving a ratchet
+ * ref invalidates up-to-date checks and configuration cache entries.
+ *
+ * @author Phillip Webb
+ */
+public abstract class GitRevisionValueSource implements ValueSource<String, GitRevisionValueSource.Parameters> {
+
+	@Override
+	public String obtain() {
+		Parameters parameters = getParameters();
+		String revision = parameters.getRevision().getOrNull();
+		if (revision == null) {
+			return null;
+		}
+		try (GitRepository repository = GitRepository.find(parameters.getProjectDirectory().get())) {
+			return (repository != null) ? repository.resolve(revision) : null;
+		}
+		catch (IOException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Parameters for {@link GitRevisionValueSource}.
+	 */
+	public interface Parameters extends ValueSourceParameters {
+
+		/**
+		 * The project directory used to find the repository.
+		 * @return the project directory
+		 */
+		Property<File> getProjectDirectory();
+
+		/**
+		 * The revision to resolve.
+		 * @return the revision
+		 */
+		Property<String> getRevision();
+
+	}
+
+}
@@ -56,6 +56,16 @@ public class CheckTaskTests {
 		assertThat(result.task(":checkFormatMain").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
 	}
 
+	@Test
+	void checkOkWithConfigurationCache() throws IOException {
+		GradleBuild gradleBuild = this.gradleBuild.source("src/test/resources/check-ok");
+		BuildResult result = gradleBuild.build("--configuration-cache", "check");
+		assertThat(result.task(":checkFormatMain").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+		result = gradleBuild.build("--configuration-cache", "check");
+		assertThat(result.getOutput()).contains("Reusing configuration cache.");
+		assertThat(result.task(":checkFormatMain").getOutcome()).isEqualTo(TaskOutcome.UP_TO_DATE);
+	}
+
 	@Test
 	void whenFirstInvocationSucceedsThenSecondInvocationIsUpToDate() throws IOException {
 		GradleBuild gradleBuild = this.gradleBuild.source("src/test/resources/check-ok");
@@ -128,6 +138,21 @@ public class CheckTaskTests {
 		assertThat(result.task(":checkFormatMain").getOutcome()).isEqualTo(TaskOutcome.FAILED);
 	}
 
+	@Test
+	void whenFirstInvocationFailsAndUnrelatedSourceIsAddedThenSecondInvocationFails() throws IOException {
+		copyNormalizedFolder(new File("src/test/resources/check-bad").toPath(), this.temp.toPath());
+		GradleBuild gradleBuild = this.gradleBuild.source(this.temp);
+		BuildResult result = gradleBuild.buildAndFail("check");
+		assertThat(result.task(":checkFormatMain").getOutcome()).isEqualTo(TaskOutcome.FAILED);
+		File source = new File("src/test/resources/check-ok/src/main/java/simple/package-info.java");
+		String packageInfo = new String(Files.readAllBytes(source.toPath()), StandardCharsets.UTF_8);
+		Files.write(new File(this.temp, "src/main/java/simple/package-info.java").toPath(),
+				packageInfo.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+		result = gradleBuild.buildAndFail("check");
+		assertThat(result.task(":checkFormatMain").getOutcome()).isEqualTo(TaskOutcome.FAILED);
+		assertThat(result.getOutput()).contains("Simple.java").doesNotContain("package-info.java");
+	}
+
 	private void copyNormalizedFolder(Path source, Path target) throws IOException {
 		try (Stream<Path> stream = Files.walk(source)) {
 			stream.forEach((child) -> {
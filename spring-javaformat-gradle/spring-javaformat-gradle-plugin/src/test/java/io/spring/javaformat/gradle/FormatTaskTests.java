@@ -19,7 +19,9 @@ package io.spring.javaformat.gradle;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.gradle.testkit.runner.BuildResult;
 import org.gradle.testkit.runner.GradleRunner;
@@ -63,6 +65,45 @@ public class FormatTaskTests {
 		assertThat(runner.build().task(":formatMain").getOutcome()).isEqualTo(TaskOutcome.UP_TO_DATE);
 	}
 
+	@Test
+	void formatOnlyWritesChangedFiles() throws IOException {
+		GradleRunner runner = this.gradleBuild.source("src/test/resources/format").prepareRunner("format");
+		assertThat(runner.build().getOutput()).contains("Formatted 1 file");
+		File formattedFile = new File(this.gradleBuild.getProjectDir(), "src/main/java/simple/Simple.java");
+		long lastModified = formattedFile.lastModified() - 10000;
+		formattedFile.setLastModified(lastModified);
+		BuildResult result = runner.build();
+		assertThat(result.task(":formatMain").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+		assertThat(result.getOutput()).contains("Formatted 0 files");
+		assertThat(formattedFile.lastModified()).isEqualTo(lastModified);
+	}
+
+	@Test
+	void formatAfterRevertingFormattedFileFormatsAgain() throws IOException {
+		GradleRunner runner = this.gradleBuild.source("src/test/resources/format").prepareRunner("format");
+		File file = new File(this.gradleBuild.getProjectDir(), "src/main/java/simple/Simple.java");
+		byte[] unformattedContent = Files.readAllBytes(file.toPath());
+		assertThat(runner.build().getOutput()).contains("Formatted 1 file");
+		Files.write(file.toPath(), unformattedContent);
+		BuildResult result = runner.build();
+		assertThat(result.task(":formatMain").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
+		assertThat(result.getOutput()).contains("Formatted 1 file");
+		assertThat(new String(Files.readAllBytes(file.toPath()))).contains("class Simple {");
+	}
+
+	@Test
+	void formatWritesFormatCache() throws IOException {
+		GradleRunner runner = this.gradleBuild.source("src/test/resources/format").prepareRunner("format");
+		runner.build();
+		File cacheFile = new File(this.gradleBuild.getProjectDir(), "build/spring-javaformat/formatMain/format.cache");
+		assertThat(cacheFile).doesNotExist();
+		File formattedFile = new File(this.gradleBuild.getProjectDir(), "src/main/java/simple/Simple.java");
+		formattedFile.setLastModified(formattedFile.lastModified() - 10000);
+		runner.build();
+		assertThat(cacheFile).exists();
+		assertThat(Files.readAllLines(cacheFile.toPath())).hasSize(1);
+	}
+
 	@Test
 	void notUpToDateWhenJavaBaselineChanges() throws IOException {
 		GradleRunner runner = this.gradleBuild.source("src/test/resources/format").prepareRunner("format");
@@ -91,6 +132,22 @@ public class FormatTaskTests {
 		assertThat(runner.build().task(":formatMain").getOutcome()).isEqualTo(TaskOutcome.SUCCESS);
 	}
 
+	@Test
+	void formatWithRatchetFromOnlyFormatsChangedFiles() throws Exception {
+		GradleRunner runner = this.gradleBuild.source("src/test/resources/format-ratchet").prepareRunner("format");
+		File projectDir = this.gradleBuild.getProjectDir();
+		git(projectDir, "init", "-q");
+		git(projectDir, "add", "-A");
+		git(projectDir, "-c", "user.name=Test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "Initial");
+		File changedFile = new File(projectDir, "src/main/java/simple/Changed.java");
+		Files.write(changedFile.toPath(), Arrays.asList("package simple;", "", "public class Changed         {", "}"));
+		BuildResult result = runner.build();
+		assertThat(result.getOutput()).contains("Formatted 1 file");
+		assertThat(new String(Files.readAllBytes(changedFile.toPath()))).contains("class Changed {");
+		File committedFile = new File(projectDir, "src/main/java/simple/Simple.java");
+		assertThat(new String(Files.readAllBytes(committedFile.toPath()))).contains("class Simple               {");
+	}
+
 	@Test
 	void checkSpacesOk() throws IOException {
 		BuildResult result = this.gradleBuild.source("src/test/resources/format-spaces").build("format");
@@ -100,4 +157,12 @@ public class FormatTaskTests {
 		assertThat(formattedContent).contains("class Simple {").contains("    public static void main");
 	}
 
+	private void git(File directory, String... arguments) throws Exception {
+		List<String> command = new ArrayList<>();
+		command.add("git");
+		command.addAll(Arrays.asList(arguments));
+		Process process = new ProcessBuilder(command).directory(directory).inheritIO().start();
+		assertThat(process.waitFor()).isZero();
+	}
+
 }
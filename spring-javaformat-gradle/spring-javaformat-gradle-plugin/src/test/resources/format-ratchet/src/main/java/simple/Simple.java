@@ -0,0 +1,15 @@
+package simple;
+
+/**
+ * Simple.
+ *
+ * @author Phillip Webb
+ * @since 1.0.0
+ */
+public class Simple               {
+
+	public static void main(String[] args) throws Exception {
+		// Main method
+	}
+
+}
@@ -18,20 +18,21 @@ package io.spring.format.formatter.intellij.formatting;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.function.BiConsumer;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.intellij.formatting.FormattingContext;
-import com.intellij.formatting.service.AbstractDocumentFormattingService;
+import com.intellij.formatting.service.AsyncDocumentFormattingService;
+import com.intellij.formatting.service.AsyncFormattingRequest;
 import com.intellij.formatting.service.FormattingService;
-import com.intellij.openapi.command.WriteCommandAction;
-import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.fileTypes.FileType;
 import com.intellij.openapi.fileTypes.FileTypeManager;
-import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiFile;
+import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.text.edits.TextEdit;
@@ -39,14 +40,22 @@ import org.jetbrains.annotations.NotNull;
 
 import io.spring.format.formatter.intellij.state.State;
 import io.spring.javaformat.config.JavaFormatConfig;
+import io.spring.javaformat.config.JavaFormatConfigResolver;
 import io.spring.javaformat.formatter.Formatter;
+import io.spring.javaformat.formatter.PooledFormatter;
 
 /**
- * {@link FormattingService} to apply Spring formatting conventions.
+ * {@link FormattingService} to apply Spring formatting conventions. Formatting runs on a
+ * background thread and the result is only applied if the document has not changed in
+ * the meantime.
  *
  * @author Phillip Webb
  */
-public class SpringJavaFormatFormattingService extends AbstractDocumentFormattingService {
+public class SpringJavaFormatFormattingService extends AsyncDocumentFormattingService {
+
+	private static final Logger logger = Logger.getInstance(SpringJavaFormatFormattingService.class);
+
+	private static final String NAME = "Spring Java Format";
 
 	private static final String NORMALIZED_LINE_SEPARATOR = "\n";
 
@@ -54,15 +63,9 @@ public class SpringJavaFormatFormattingService extends AbstractDocumentFormattin
 
 	private static final FileType JAVA_FILE_TYPE = FileTypeManager.getInstance().getStdFileType("JAVA");
 
-	private final BiConsumer<Project, Runnable> runAction;
-
-	public SpringJavaFormatFormattingService() {
-		this(WriteCommandAction::runWriteCommandAction);
-	}
-
-	SpringJavaFormatFormattingService(BiConsumer<Project, Runnable> runAction) {
-		this.runAction = runAction;
-	}
+	// Formatters only depend on the baseline and indentation style so they never need to
+	// be cleared when a config file changes
+	private final Map<JavaFormatConfig, Formatter> formatters = new ConcurrentHashMap<>();
 
 	@Override
 	public @NotNull Set<Feature> getFeatures() {
@@ -75,29 +78,75 @@ public class SpringJavaFormatFormattingService extends AbstractDocumentFormattin
 	}
 
 	@Override
-	public void formatDocument(@NotNull Document document, @NotNull List<TextRange> formattingRanges,
-			@NotNull FormattingContext formattingContext, boolean canChangeWhiteSpaceOnly, boolean quickFormat) {
+	protected FormattingTask createFormattingTask(@NotNull AsyncFormattingRequest formattingRequest) {
+		return new SpringFormattingTask(formattingRequest);
+	}
+
+	@Override
+	protected @NotNull String getNotificationGroupId() {
+		return NAME;
+	}
+
+	@Override
+	protected @NotNull String getName() {
+		return NAME;
+	}
+
+	private String format(String source, List<TextRange> formattingRanges, FormattingContext formattingContext)
+			throws Exception {
 		VirtualFile file = formattingContext.getVirtualFile();
 		Path path = (file != null) ? file.getFileSystem().getNioPath(file) : null;
-		JavaFormatConfig config = JavaFormatConfig.findFrom(path);
-		Formatter formatter = new Formatter(config);
-		String source = document.getText();
+		JavaFormatConfig config = JavaFormatConfigResolver.getShared().resolve(path);
+		Formatter formatter = this.formatters.computeIfAbsent(
+				JavaFormatConfig.of(config.getJavaBaseline(), config.getIndentationStyle()), PooledFormatter::new);
 		formattingRanges = (!formattingRanges.isEmpty()) ? formattingRanges : List.of(TextRange.allOf(source));
 		IRegion[] regions = EclipseRegionAdapter.asArray(formattingRanges);
 		TextEdit edit = formatter.format(source, regions, NORMALIZED_LINE_SEPARATOR);
-		applyEdit(formattingContext.getProject(), document, edit);
+		if (edit == null) {
+			return null;
+		}
+		IDocument document = new Document(source);
+		edit.apply(document);
+		return document.get();
 	}
 
-	private void applyEdit(Project project, Document document, TextEdit textEdit) {
-		this.runAction.accept(project, () -> {
+	/**
+	 * {@link FormattingTask} used to format a single request. The Eclipse formatter cannot
+	 * be interrupted, so a cancelled task completes but does not report its result.
+	 */
+	private final class SpringFormattingTask implements FormattingTask {
+
+		private final AsyncFormattingRequest request;
+
+		private volatile boolean cancelled;
+
+		SpringFormattingTask(AsyncFormattingRequest request) {
+			this.request = request;
+		}
+
+		@Override
+		public void run() {
 			try {
-				IDocument adapted = new EclipseDocumentAdapter(document);
-				textEdit.apply(adapted);
+				String formatted = format(this.request.getDocumentText(), this.request.getFormattingRanges(),
+						this.request.getContext());
+				if (!this.cancelled) {
+					this.request.onTextReady(formatted);
+				}
 			}
 			catch (Exception ex) {
-				throw new IllegalStateException(ex);
+				logger.warn("Unable to format " + this.request.getContext().getVirtualFile(), ex);
+				if (!this.cancelled) {
+					this.request.onError(NAME, String.valueOf(ex.getMessage()));
+				}
 			}
-		});
+		}
+
+		@Override
+		public boolean cancel() {
+			this.cancelled = true;
+			return true;
+		}
+
 	}
 
 }
@@ -25,9 +25,11 @@ import com.intellij.openapi.vfs.VirtualFileMoveEvent;
 import com.intellij.openapi.vfs.VirtualFilePropertyEvent;
 
 import io.spring.format.formatter.intellij.state.State;
+import io.spring.javaformat.config.JavaFormatConfigResolver;
 
 /**
- * {@link Monitor} that looks for a {@literal .springjavaformatconfig} file.
+ * {@link Monitor} that looks for a {@literal .springjavaformatconfig} file. Changes to
+ * any {@literal .springjavaformatconfig} file also invalidate resolved config.
  *
  * @author Phillip Webb
  */
@@ -64,6 +66,12 @@ public class FileMonitor extends Monitor {
 		}
 	}
 
+	private void invalidateIfTriggerFile(Object fileName) {
+		if (TRIGGER_FILE.equals(fileName)) {
+			JavaFormatConfigResolver.getShared().clear();
+		}
+	}
+
 	public static Factory factory() {
 		return (project, trigger) -> new FileMonitor(project, trigger, VirtualFileManager.getInstance());
 	}
@@ -75,24 +83,36 @@ public class FileMonitor extends Monitor {
 
 		@Override
 		public void fileCreated(VirtualFileEvent event) {
+			invalidateIfTriggerFile(event.getFileName());
 			check();
 		}
 
 		@Override
 		public void fileDeleted(VirtualFileEvent event) {
+			invalidateIfTriggerFile(event.getFileName());
 			check();
 		}
 
 		@Override
 		public void fileMoved(VirtualFileMoveEvent event) {
+			invalidateIfTriggerFile(event.getFileName());
 			check();
 		}
 
 		@Override
 		public void propertyChanged(VirtualFilePropertyEvent event) {
+			if (VirtualFile.PROP_NAME.equals(event.getPropertyName())) {
+				invalidateIfTriggerFile(event.getOldValue());
+				invalidateIfTriggerFile(event.getNewValue());
+			}
 			check();
 		}
 
+		@Override
+		public void contentsChanged(VirtualFileEvent event) {
+			invalidateIfTriggerFile(event.getFileName());
+		}
+
 	}
 
 }
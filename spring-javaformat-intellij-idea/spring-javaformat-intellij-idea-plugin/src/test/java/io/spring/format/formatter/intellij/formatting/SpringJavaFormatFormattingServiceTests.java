@@ -21,12 +21,13 @@ import java.nio.file.Path;
 import java.util.Collections;
 
 import com.intellij.formatting.FormattingContext;
+import com.intellij.formatting.service.AsyncFormattingRequest;
 import com.intellij.formatting.service.FormattingService.Feature;
-import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.fileTypes.FileType;
 import com.intellij.openapi.fileTypes.FileTypeManager;
 import com.intellij.openapi.fileTypes.PlainTextFileType;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.vfs.local.CoreLocalFileSystem;
 import com.intellij.openapi.vfs.local.CoreLocalVirtualFile;
@@ -40,7 +41,7 @@ import io.spring.format.formatter.intellij.state.State;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -50,8 +51,7 @@ import static org.mockito.Mockito.mock;
  */
 class SpringJavaFormatFormattingServiceTests {
 
-	private SpringJavaFormatFormattingService service = new SpringJavaFormatFormattingService(
-			(project, runnable) -> runnable.run());
+	private SpringJavaFormatFormattingService service = new SpringJavaFormatFormattingService();
 
 	@Test
 	void getFeaturesReturnsFormatFragments() {
@@ -80,16 +80,14 @@ class SpringJavaFormatFormattingServiceTests {
 	}
 
 	@Test
-	void formatDocumentAppliesFormatting(@TempDir Path projectDir) throws Exception {
+	void formattingTaskWhenConfigFileFormatsWithConfig(@TempDir Path projectDir) throws Exception {
 		Files.writeString(projectDir.resolve(".springjavaformatconfig"), "indentation-style=spaces");
-		Document document = mockDocument("public class Hello{"
+		VirtualFile virtualFile = new CoreLocalVirtualFile(new CoreLocalFileSystem(), projectDir.resolve("Hello.java"));
+		AsyncFormattingRequest request = mockRequest(virtualFile, "public class Hello{"
 				+ "\tpublic void hello() {"
 				+ "\tString value =\t\"Hello World\";}}");
-		FormattingContext formattingContext = mock(FormattingContext.class);
-		VirtualFile virtualFile = new CoreLocalVirtualFile(new CoreLocalFileSystem(), projectDir.resolve("Hello.java"));
-		given(formattingContext.getVirtualFile()).willReturn(virtualFile);
-		this.service.formatDocument(document, Collections.emptyList(), formattingContext, false, false);
-		assertThat(document.getText()).isEqualTo("public class Hello {\n\n"
+		this.service.createFormattingTask(request).run();
+		then(request).should().onTextReady("public class Hello {\n\n"
 				+ "    public void hello() {\n"
 				+ "        String value = \"Hello World\";\n"
 				+ "    }\n\n"
@@ -97,31 +95,38 @@ class SpringJavaFormatFormattingServiceTests {
 	}
 
 	@Test
-	void formatDocumentAppliesFormatting() {
-		Document document = mockDocument("public class Hello{"
+	void formattingTaskFormats() {
+		String text = "public class Hello{"
 				+ "\tpublic void hello() {"
-				+ "\tString value =\t\"Hello World\";}}");
-		FormattingContext formattingContext = mock(FormattingContext.class);
-		VirtualFile virtualFile = new LightVirtualFile("Hello.java", document.getText());
-		given(formattingContext.getVirtualFile()).willReturn(virtualFile);
-		this.service.formatDocument(document, Collections.emptyList(), formattingContext, false, false);
-		assertThat(document.getText()).isEqualTo("public class Hello {\n\n"
+				+ "\tString value =\t\"Hello World\";}}";
+		AsyncFormattingRequest request = mockRequest(new LightVirtualFile("Hello.java", text), text);
+		this.service.createFormattingTask(request).run();
+		then(request).should().onTextReady("public class Hello {\n\n"
 				+ "\tpublic void hello() {\n"
 				+ "\t\tString value = \"Hello World\";\n"
 				+ "\t}\n\n"
 				+ "}");
 	}
 
+	@Test
+	void formattingTaskWhenRangesFormatsRanges() {
+		String text = "public class Hello {\n\n\tpublic void a(){}\n\n\tpublic void b(){}\n\n}";
+		AsyncFormattingRequest request = mockRequest(new LightVirtualFile("Hello.java", text), text);
+		int start = text.indexOf("\tpublic void b");
+		given(request.getFormattingRanges()).willReturn(Collections.singletonList(new TextRange(start, start + 18)));
+		this.service.createFormattingTask(request).run();
+		then(request).should()
+			.onTextReady("public class Hello {\n\n\tpublic void a(){}\n\n\tpublic void b() {\n\t}\n\n}");
+	}
 
-	private Document mockDocument(String text) {
-		Document document = mock(Document.class);
-		StringBuilder documentText = new StringBuilder(text);
-		willAnswer((invocation) -> {
-			documentText.replace(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
-			return null;
-		}).given(document).replaceString(any(Integer.class), any(Integer.class), any(CharSequence.class));
-		given(document.getText()).willAnswer((invocation) -> documentText.toString());
-		return document;
+	private AsyncFormattingRequest mockRequest(VirtualFile virtualFile, String text) {
+		FormattingContext formattingContext = mock(FormattingContext.class);
+		given(formattingContext.getVirtualFile()).willReturn(virtualFile);
+		AsyncFormattingRequest request = mock(AsyncFormattingRequest.class);
+		given(request.getDocumentText()).willReturn(text);
+		given(request.getFormattingRanges()).willReturn(Collections.emptyList());
+		given(request.getContext()).willReturn(formattingContext);
+		return request;
 	}
 
 	private PsiFile mockFile(FileType fileType, State state) {
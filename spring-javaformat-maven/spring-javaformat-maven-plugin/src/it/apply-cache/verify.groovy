@@ -0,0 +1,5 @@
+new io.spring.format.maven.VerifyApply().verify(basedir)
+def cache = new File(basedir, "target/spring-javaformat/apply.cache")
+assert cache.exists()
+assert cache.readLines().size() == 1
+assert cache.readLines()[0] ==~ /[0-9a-f]{64}/
@@ -0,0 +1,13 @@
+def git(String... arguments) {
+	def command = ["git", "-c", "user.name=Test", "-c", "user.email=test@example.com", "-c", "commit.gpgsign=false"]
+	command.addAll(arguments)
+	def process = command.execute(null, basedir)
+	def output = process.text
+	assert process.waitFor() == 0 : output
+}
+
+git("init", "-q")
+git("add", "pom.xml", "src")
+git("commit", "-q", "-m", "Initial")
+new File(basedir, "src/main/java/simple/Changed.java").text = "package simple;\n\npublic class Changed         {\n}\n"
+return true
@@ -0,0 +1,2 @@
+new io.spring.format.maven.VerifyApply().verifyNoApply(basedir)
+assert new File(basedir, "src/main/java/simple/Changed.java").text.contains("public class Changed {")
@@ -0,0 +1,15 @@
+package simple;
+
+/**
+ * Other.
+ *
+ * @author agent (agent@local)
+ * @since 1.0.0
+ */
+public class Other {
+
+	public static void main(String[] args) throws Exception {
+		// Main method
+	}
+
+}
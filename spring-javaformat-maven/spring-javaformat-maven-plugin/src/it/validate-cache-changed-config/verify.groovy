@@ -0,0 +1,2 @@
+def log = new File(basedir, "build.log").text
+assert log.contains("[DEBUG] Validating 2 of 2 files")
@@ -0,0 +1,20 @@
+import java.security.MessageDigest
+
+def entry(String name, String hash, long lastModified) {
+	def file = new File(basedir, "src/main/java/simple/" + name)
+	return hash + "\t" + file.length() + "\t" + lastModified + "\t" + file.absolutePath
+}
+
+def hash(String name) {
+	def bytes = new File(basedir, "src/main/java/simple/" + name).bytes
+	return MessageDigest.getInstance("SHA-256").digest(bytes).encodeHex().toString()
+}
+
+def version = (new File(basedir, "pom.xml").text =~ /spring-javaformat-maven-plugin<\/artifactId>\s*<version>([^<]+)/)[0][1]
+def key = "version=" + version + ", javaBaseline=V8, indentationStyle=TABS, encoding=UTF-8, lineSeparator=default"
+def other = new File(basedir, "src/main/java/simple/Other.java")
+def cache = new File(basedir, "target/spring-javaformat/validate.cache")
+cache.parentFile.mkdirs()
+cache.text = "# " + key + "\n" + entry("Other.java", hash("Other.java"), other.lastModified()) + "\n" +
+		entry("Simple.java", "0" * 64, 0) + "\n"
+return true
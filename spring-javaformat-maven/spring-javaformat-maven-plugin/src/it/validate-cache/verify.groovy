@@ -0,0 +1,5 @@
+def cache = new File(basedir, "target/spring-javaformat/validate.cache")
+assert cache.exists()
+assert cache.text.contains("Simple.java")
+def log = new File(basedir, "build.log").text
+assert log.contains("[DEBUG] Validating 0 of 1 files")
@@ -17,6 +17,7 @@
 package io.spring.format.maven;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.List;
 
@@ -27,7 +28,10 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
 import io.spring.javaformat.formatter.FileEdit;
+import io.spring.javaformat.formatter.FileFormatter;
 import io.spring.javaformat.formatter.FileFormatterException;
+import io.spring.javaformat.formatter.FormatCache;
+import io.spring.javaformat.formatter.PersistentFormatCache;
 
 /**
  * Applies source formatting to the codebase.
@@ -43,6 +47,19 @@ public class ApplyMojo extends FormatMojo {
 	@Parameter(property = "spring-javaformat.apply.skip", defaultValue = "false")
 	private boolean skip;
 
+	/**
+	 * Whether to cache the content of files that are already correctly formatted so that
+	 * they are not formatted again until they change.
+	 */
+	@Parameter(property = "spring-javaformat.apply.useCache", defaultValue = "true")
+	private boolean useCache;
+
+	/**
+	 * The location of the format cache.
+	 */
+	@Parameter(defaultValue = "${project.build.directory}/spring-javaformat/apply.cache")
+	private File cacheFile;
+
 	@Override
 	protected void execute(List<File> files, Charset encoding, String lineSeparator)
 			throws MojoExecutionException, MojoFailureException {
@@ -50,12 +67,25 @@ public class ApplyMojo extends FormatMojo {
 			getLog().info("skipping format apply as per configuration.");
 			return;
 		}
-		try {
-			getFormatter().formatFiles(files, encoding, lineSeparator).filter(FileEdit::hasEdits).forEach(this::save);
+		PersistentFormatCache cache = (this.useCache) ? new PersistentFormatCache(this.cacheFile) : null;
+		try (FileFormatter formatter = getFormatter((cache != null) ? cache : FormatCache.NONE)) {
+			formatter.formatFiles(files, encoding, lineSeparator).filter(FileEdit::hasEdits).forEach(this::save);
 		}
 		catch (FileFormatterException ex) {
 			throw new MojoExecutionException("Unable to format file " + ex.getFile(), ex);
 		}
+		if (cache != null) {
+			saveCache(cache);
+		}
+	}
+
+	private void saveCache(PersistentFormatCache cache) throws MojoExecutionException {
+		try {
+			cache.save();
+		}
+		catch (IOException ex) {
+			throw new MojoExecutionException("Unable to save format cache " + this.cacheFile, ex);
+		}
 	}
 
 	private void save(FileEdit edit) {
@@ -40,7 +40,11 @@ import org.codehaus.plexus.util.DirectoryScanner;
 import org.codehaus.plexus.util.FileUtils;
 
 import io.spring.javaformat.config.JavaFormatConfig;
+import io.spring.javaformat.config.JavaFormatConfigResolver;
 import io.spring.javaformat.formatter.FileFormatter;
+import io.spring.javaformat.formatter.FormatCache;
+import io.spring.javaformat.formatter.Formatter;
+import io.spring.javaformat.git.GitRepository;
 
 /**
  * Base class for formatter Mojo.
@@ -117,6 +121,22 @@ public abstract class FormatMojo extends AbstractMojo {
 	@Parameter(property = "spring-javaformat.lineSeparator")
 	private String lineSeparator;
 
+	/**
+	 * Specifies the number of threads used to format files. Values ending in
+	 * <code>C</code> are multiplied by the number of available processors, for example
+	 * <code>1.5C</code>. Results are always reported in the order that files are found.
+	 */
+	@Parameter(property = "spring-javaformat.threads", defaultValue = "1C")
+	private String threads;
+
+	/**
+	 * Specifies a git revision (for example <code>origin/main</code>) to ratchet from.
+	 * When set, only files that have changed since the revision, or that are untracked,
+	 * are processed.
+	 */
+	@Parameter(property = "spring-javaformat.ratchetFrom")
+	private String ratchetFrom;
+
 	@Override
 	public final void execute() throws MojoExecutionException, MojoFailureException {
 		List<File> directories = new ArrayList<>();
@@ -126,6 +146,9 @@ public abstract class FormatMojo extends AbstractMojo {
 		for (File directory : directories) {
 			files.addAll(scan(directory));
 		}
+		if (this.ratchetFrom != null && !this.ratchetFrom.trim().isEmpty()) {
+			files = ratchet(files, this.ratchetFrom.trim());
+		}
 		Charset encoding = (this.encoding == null ? StandardCharsets.UTF_8 : Charset.forName(this.encoding));
 		String lineSeparator = null;
 		if (this.lineSeparator != null) {
@@ -183,6 +206,22 @@ public abstract class FormatMojo extends AbstractMojo {
 			.collect(Collectors.toList());
 	}
 
+	private List<File> ratchet(List<File> files, String revision) throws MojoExecutionException {
+		try (GitRepository repository = GitRepository.find(this.project.getBasedir())) {
+			if (repository == null) {
+				throw new MojoExecutionException("Unable to ratchet from " + revision + " as "
+						+ this.project.getBasedir() + " is not in a git repository");
+			}
+			List<File> changed = repository.getChangedFiles(revision, files);
+			getLog().debug("Ratcheting from " + revision + " selected " + changed.size() + " of " + files.size()
+					+ " files");
+			return changed;
+		}
+		catch (IOException ex) {
+			throw new MojoExecutionException("Unable to ratchet from " + revision + ": " + ex.getMessage(), ex);
+		}
+	}
+
 	private boolean hasLength(Object[] array) {
 		return array != null && array.length > 0;
 	}
@@ -198,9 +237,44 @@ public abstract class FormatMojo extends AbstractMojo {
 	protected abstract void execute(List<File> files, Charset encoding, String lineSeparator)
 			throws MojoExecutionException, MojoFailureException;
 
-	protected final FileFormatter getFormatter() {
-		JavaFormatConfig javaFormatConfig = JavaFormatConfig.findFrom(this.project.getBasedir());
-		return new FileFormatter(javaFormatConfig);
+	protected final FileFormatter getFormatter() throws MojoExecutionException {
+		return getFormatter(FormatCache.NONE);
+	}
+
+	protected final FileFormatter getFormatter(FormatCache cache) throws MojoExecutionException {
+		JavaFormatConfig javaFormatConfig = getJavaFormatConfig();
+		Formatter formatter = FormatterRegistry.get(this.session).getFormatter(javaFormatConfig);
+		return new FileFormatter(() -> formatter, getParallelism(), javaFormatConfig, cache);
+	}
+
+	protected final JavaFormatConfig getJavaFormatConfig() {
+		return JavaFormatConfigResolver.getShared().resolve(this.project.getBasedir());
+	}
+
+	private int getParallelism() throws MojoExecutionException {
+		return (this.threads != null) ? parseParallelism(this.threads) : FileFormatter.DEFAULT_PARALLELISM;
+	}
+
+	static int parseParallelism(String threads) throws MojoExecutionException {
+		String value = threads.trim();
+		try {
+			if (value.endsWith("C") || value.endsWith("c")) {
+				float multiplier = Float.parseFloat(value.substring(0, value.length() - 1));
+				if (!(multiplier > 0)) {
+					throw new MojoExecutionException("Invalid threads " + threads + " (must be positive)");
+				}
+				int processors = Runtime.getRuntime().availableProcessors();
+				return Math.max(1, (int) (multiplier * processors));
+			}
+			int parallelism = Integer.parseInt(value);
+			if (parallelism < 1) {
+				throw new MojoExecutionException("Invalid threads " + threads + " (must be positive)");
+			}
+			return parallelism;
+		}
+		catch (NumberFormatException ex) {
+			throw new MojoExecutionException("Invalid threads " + threads, ex);
+		}
 	}
 
 	protected boolean skipGlobally() {
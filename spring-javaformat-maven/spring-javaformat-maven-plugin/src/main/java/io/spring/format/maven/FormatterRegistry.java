@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.format.maven;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.SessionData;
+
+import io.spring.javaformat.config.JavaFormatConfig;
+import io.spring.javaformat.formatter.Formatter;
+import io.spring.javaformat.formatter.PooledFormatter;
+
+/**
+ * Session scoped registry of {@link Formatter} instances that are shared by all mojo
+ * executions in the reactor.
+ *
+ * @author Phillip Webb
+ */
+final class FormatterRegistry {
+
+	private final Map<JavaFormatConfig, Formatter> formatters = new ConcurrentHashMap<>();
+
+	private FormatterRegistry() {
+	}
+
+	/**
+	 * Return a shared formatter for the given config.
+	 * @param javaFormatConfig the java format config
+	 * @return a thread-safe formatter
+	 */
+	Formatter getFormatter(JavaFormatConfig javaFormatConfig) {
+		JavaFormatConfig key = JavaFormatConfig.of(javaFormatConfig.getJavaBaseline(),
+				javaFormatConfig.getIndentationStyle());
+		return this.formatters.computeIfAbsent(key, this::createFormatter);
+	}
+
+	private Formatter createFormatter(JavaFormatConfig javaFormatConfig) {
+		// Delegates are created lazily and the pool is bounded by the number of processors
+		// so parallel reactor builds wait rather than creating a delegate per thread
+		return new PooledFormatter(javaFormatConfig, PooledFormatter.DEFAULT_MAX_SIZE,
+				PooledFormatter.DEFAULT_IDLE_TIMEOUT_MILLIS);
+	}
+
+	/**
+	 * Return the registry for the given session, creating it if necessary.
+	 * @param session the maven session
+	 * @return the formatter registry
+	 */
+	static FormatterRegistry get(MavenSession session) {
+		// The class is used as the key since it is unique to this plugin's class realm
+		SessionData data = session.getRepositorySession().getData();
+		FormatterRegistry registry = (FormatterRegistry) data.get(FormatterRegistry.class);
+		while (registry == null) {
+			data.set(FormatterRegistry.class, null, new FormatterRegistry());
+			registry = (FormatterRegistry) data.get(FormatterRegistry.class);
+		}
+		return registry;
+	}
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.format.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of files that were found to be correctly formatted by a previous validation.
+ * Entries record the path, size, last modified time and content hash of each file. The
+ * whole cache is discarded if the key (which includes the plugin version and the format
+ * settings) changes.
+ *
+ * @author Phillip Webb
+ */
+final class ValidateCache {
+
+	private static final String KEY_PREFIX = "# ";
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private final Path file;
+
+	private final String key;
+
+	private final Map<String, Entry> previous;
+
+	private final Map<String, Entry> pending = new HashMap<>();
+
+	private final Map<String, Entry> current = new LinkedHashMap<>();
+
+	private ValidateCache(Path file, String key, Map<String, Entry> previous) {
+		this.file = file;
+		this.key = key;
+		this.previous = previous;
+	}
+
+	/**
+	 * Return if the given file is known to be correctly formatted. If the file is not
+	 * known to be formatted it can later be marked as valid using
+	 * {@link #markValid(File)}.
+	 * @param file the file to check
+	 * @return if the file is valid
+	 * @throws IOException on IO error
+	 */
+	boolean isValid(File file) throws IOException {
+		String path = file.getAbsolutePath();
+		Entry entry = this.previous.get(path);
+		long size = file.length();
+		long lastModified = file.lastModified();
+		if (entry != null && entry.size == size && entry.lastModified == lastModified) {
+			this.current.put(path, entry);
+			return true;
+		}
+		Entry updated = new Entry(size, lastModified, hash(file));
+		if (entry != null && entry.size == size && entry.hash.equals(updated.hash)) {
+			this.current.put(path, updated);
+			return true;
+		}
+		this.pending.put(path, updated);
+		return false;
+	}
+
+	/**
+	 * Mark a file previously reported as not valid by {@link #isValid(File)} as valid.
+	 * @param file the file to mark
+	 */
+	void markValid(File file) {
+		String path = file.getAbsolutePath();
+		Entry entry = this.pending.remove(path);
+		if (entry != null) {
+			this.current.put(path, entry);
+		}
+	}
+
+	/**
+	 * Save the cache, including only the files that are currently known to be valid.
+	 * @throws IOException on IO error
+	 */
+	void save() throws IOException {
+		List<String> lines = new ArrayList<>(this.current.size() + 1);
+		lines.add(KEY_PREFIX + this.key);
+		this.current.forEach((path, entry) -> lines.add(entry.toString(path)));
+		Path parent = this.file.toAbsolutePath().getParent();
+		Files.createDirectories(parent);
+		Path temp = Files.createTempFile(parent, this.file.getFileName().toString(), ".tmp");
+		try {
+			Files.write(temp, lines, StandardCharsets.UTF_8);
+			Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	private String hash(File file) throws IOException {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] hash = digest.digest(Files.readAllBytes(file.toPath()));
+			char[] hex = new char[hash.length * 2];
+			for (int i = 0; i < hash.length; i++) {
+				hex[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0xF];
+				hex[i * 2 + 1] = HEX_DIGITS[hash[i] & 0xF];
+			}
+			return new String(hex);
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Load the cache from the given file, discarding any existing entries if the key
+	 * does not match.
+	 * @param file the cache file
+	 * @param key the cache key
+	 * @return the loaded cache
+	 */
+	static ValidateCache load(File file, String key) {
+		Map<String, Entry> entries = new HashMap<>();
+		try {
+			if (file.exists()) {
+				List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+				if (!lines.isEmpty() && lines.get(0).equals(KEY_PREFIX + key)) {
+					for (String line : lines.subList(1, lines.size())) {
+						String[] parts = line.split("\t", 4);
+						if (parts.length == 4) {
+							entries.put(parts[3], Entry.parse(parts));
+						}
+					}
+				}
+			}
+		}
+		catch (IOException | NumberFormatException ex) {
+			entries.clear();
+		}
+		return new ValidateCache(file.toPath(), key, entries);
+	}
+
+	/**
+	 * A single cache entry.
+	 */
+	private static final class Entry {
+
+		private final long size;
+
+		private final long lastModified;
+
+		private final String hash;
+
+		Entry(long size, long lastModified, String hash) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.hash = hash;
+		}
+
+		String toString(String path) {
+			return this.hash + "\t" + this.size + "\t" + this.lastModified + "\t" + path;
+		}
+
+		static Entry parse(String[] parts) {
+			return new Entry(Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts[0]);
+		}
+
+	}
+
+}
@@ -17,17 +17,23 @@
 package io.spring.format.maven;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
-import io.spring.javaformat.formatter.FileEdit;
+import io.spring.javaformat.config.JavaFormatConfig;
+import io.spring.javaformat.formatter.FileFormatter;
 
 /**
  * Validates that source formatting matches the required style.
@@ -43,6 +49,22 @@ public class ValidateMojo extends FormatMojo {
 	@Parameter(property = "spring-javaformat.validate.skip", defaultValue = "false")
 	private boolean skip;
 
+	/**
+	 * Whether to cache files that were found to be correctly formatted so that they are
+	 * not checked again until they change.
+	 */
+	@Parameter(property = "spring-javaformat.validate.useCache", defaultValue = "true")
+	private boolean useCache;
+
+	/**
+	 * The location of the validation cache.
+	 */
+	@Parameter(defaultValue = "${project.build.directory}/spring-javaformat/validate.cache")
+	private File cacheFile;
+
+	@Parameter(defaultValue = "${plugin}", readonly = true)
+	private PluginDescriptor plugin;
+
 	@Override
 	protected void execute(List<File> files, Charset encoding, String lineSeparator)
 			throws MojoExecutionException, MojoFailureException {
@@ -50,10 +72,12 @@ public class ValidateMojo extends FormatMojo {
 			getLog().info("skipping format validate as per configuration.");
 			return;
 		}
-		List<File> problems = getFormatter().formatFiles(files, encoding, lineSeparator)
-			.filter(FileEdit::hasEdits)
-			.map(FileEdit::getFile)
-			.collect(Collectors.toList());
+		boolean useCache = this.useCache && this.plugin.getVersion() != null;
+		if (this.useCache && !useCache) {
+			getLog().debug("Not using validation cache as the plugin version is unknown");
+		}
+		List<File> problems = (useCache) ? validateUsingCache(files, encoding, lineSeparator)
+				: validate(files, encoding, lineSeparator);
 		if (!problems.isEmpty()) {
 			StringBuilder message = new StringBuilder("Formatting violations found in the following files:\n");
 			problems.stream().forEach((f) -> message.append(" * " + f + "\n"));
@@ -62,4 +86,41 @@ public class ValidateMojo extends FormatMojo {
 		}
 	}
 
+	private List<File> validateUsingCache(List<File> files, Charset encoding, String lineSeparator)
+			throws MojoExecutionException {
+		JavaFormatConfig config = getJavaFormatConfig();
+		String key = "version=" + this.plugin.getVersion() + ", javaBaseline=" + config.getJavaBaseline()
+				+ ", indentationStyle=" + config.getIndentationStyle() + ", encoding=" + encoding.name()
+				+ ", lineSeparator=" + escape(lineSeparator);
+		ValidateCache cache = ValidateCache.load(this.cacheFile, key);
+		try {
+			List<File> uncached = new ArrayList<>();
+			for (File file : files) {
+				if (!cache.isValid(file)) {
+					uncached.add(file);
+				}
+			}
+			getLog().debug("Validating " + uncached.size() + " of " + files.size() + " files");
+			List<File> problems = validate(uncached, encoding, lineSeparator);
+			Set<File> invalid = new HashSet<>(problems);
+			uncached.stream().filter((file) -> !invalid.contains(file)).forEach(cache::markValid);
+			cache.save();
+			return problems;
+		}
+		catch (IOException ex) {
+			throw new MojoExecutionException("Unable to use validation cache " + this.cacheFile, ex);
+		}
+	}
+
+	private String escape(String lineSeparator) {
+		return (lineSeparator != null) ? lineSeparator.replace("\r", "\\r").replace("\n", "\\n") : "default";
+	}
+
+	private List<File> validate(List<File> files, Charset encoding, String lineSeparator)
+			throws MojoExecutionException {
+		try (FileFormatter formatter = getFormatter()) {
+			return formatter.checkFiles(files, encoding, lineSeparator).collect(Collectors.toList());
+		}
+	}
+
 }
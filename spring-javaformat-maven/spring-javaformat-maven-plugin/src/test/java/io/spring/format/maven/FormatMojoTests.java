@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.format.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link FormatMojo}.
+ *
+ * @author agent (agent@local)
+ */
+class FormatMojoTests {
+
+	@Test
+	void parseParallelismWhenIntegerReturnsValue() throws Exception {
+		assertThat(FormatMojo.parseParallelism(" 3 ")).isEqualTo(3);
+	}
+
+	@Test
+	void parseParallelismWhenMultiplierReturnsValueForProcessors() throws Exception {
+		int processors = Runtime.getRuntime().availableProcessors();
+		assertThat(FormatMojo.parseParallelism("2C")).isEqualTo(2 * processors);
+		assertThat(FormatMojo.parseParallelism("0.0001c")).isEqualTo(1);
+	}
+
+	@Test
+	void parseParallelismWhenNotPositiveIntegerThrowsException() {
+		assertThatExceptionOfType(MojoExecutionException.class).isThrownBy(() -> FormatMojo.parseParallelism("0"))
+			.withMessage("Invalid threads 0 (must be positive)");
+		assertThatExceptionOfType(MojoExecutionException.class).isThrownBy(() -> FormatMojo.parseParallelism("-1"))
+			.withMessage("Invalid threads -1 (must be positive)");
+	}
+
+	@Test
+	void parseParallelismWhenNotPositiveMultiplierThrowsException() {
+		assertThatExceptionOfType(MojoExecutionException.class).isThrownBy(() -> FormatMojo.parseParallelism("0C"))
+			.withMessage("Invalid threads 0C (must be positive)");
+		assertThatExceptionOfType(MojoExecutionException.class).isThrownBy(() -> FormatMojo.parseParallelism("-1C"))
+			.withMessage("Invalid threads -1C (must be positive)");
+	}
+
+	@Test
+	void parseParallelismWhenInvalidThrowsException() {
+		assertThatExceptionOfType(MojoExecutionException.class).isThrownBy(() -> FormatMojo.parseParallelism("x"))
+			.withMessage("Invalid threads x");
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.format.maven;
+
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.junit.jupiter.api.Test;
+
+import io.spring.javaformat.config.IndentationStyle;
+import io.spring.javaformat.config.JavaBaseline;
+import io.spring.javaformat.config.JavaFormatConfig;
+import io.spring.javaformat.formatter.Formatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link FormatterRegistry}.
+ *
+ * @author agent (agent@local)
+ */
+class FormatterRegistryTests {
+
+	@Test
+	void getWhenSameSessionReturnsSameFormatter() {
+		MavenSession session = mockSession();
+		Formatter first = FormatterRegistry.get(session).getFormatter(JavaFormatConfig.DEFAULT);
+		Formatter second = FormatterRegistry.get(session)
+			.getFormatter(JavaFormatConfig.of(JavaFormatConfig.DEFAULT.getJavaBaseline(),
+					JavaFormatConfig.DEFAULT.getIndentationStyle()));
+		assertThat(first).isSameAs(second);
+	}
+
+	@Test
+	void getWhenDifferentSessionReturnsDifferentFormatter() {
+		Formatter first = FormatterRegistry.get(mockSession()).getFormatter(JavaFormatConfig.DEFAULT);
+		Formatter second = FormatterRegistry.get(mockSession()).getFormatter(JavaFormatConfig.DEFAULT);
+		assertThat(first).isNotSameAs(second);
+	}
+
+	@Test
+	void getFormatterWhenDifferentConfigReturnsDifferentFormatter() {
+		FormatterRegistry registry = FormatterRegistry.get(mockSession());
+		Formatter tabs = registry.getFormatter(JavaFormatConfig.of(JavaBaseline.V17, IndentationStyle.TABS));
+		Formatter spaces = registry.getFormatter(JavaFormatConfig.of(JavaBaseline.V17, IndentationStyle.SPACES));
+		assertThat(tabs).isNotSameAs(spaces);
+		assertThat(tabs.createIndentationString(1)).isEqualTo("\t");
+		assertThat(spaces.createIndentationString(1)).isEqualTo("    ");
+	}
+
+	private MavenSession mockSession() {
+		MavenSession session = mock(MavenSession.class);
+		given(session.getRepositorySession()).willReturn(new DefaultRepositorySystemSession());
+		return session;
+	}
+
+}
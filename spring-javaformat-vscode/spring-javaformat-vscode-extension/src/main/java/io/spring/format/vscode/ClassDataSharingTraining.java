@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.format.vscode;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.spring.javaformat.config.IndentationStyle;
+import io.spring.javaformat.config.JavaBaseline;
+import io.spring.javaformat.config.JavaFormatConfig;
+import io.spring.javaformat.formatter.StreamsEdit;
+import io.spring.javaformat.formatter.StreamsFormatter;
+
+/**
+ * Training workload used to create a class data sharing archive. Formats each of the
+ * given source files, or the files found in the given directories, with every
+ * {@link JavaBaseline} so that the classes used by typical formatter launches are
+ * loaded. Run by the Visual Studio Code extension with
+ * {@code -XX:ArchiveClassesAtExit=<file>} to create the archive used by later
+ * {@link FormatterServer} launches.
+ *
+ * @author Phillip Webb
+ */
+public final class ClassDataSharingTraining {
+
+	private static final String SAMPLE_SOURCE = "package test;\n\n/**\n * Sample.\n */\n"
+			+ "public class Sample {private final String name;Sample(String name){this.name=name;}\n"
+			+ "String getName(){return (this.name!=null)?this.name:\"\";}}\n";
+
+	private ClassDataSharingTraining() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		List<String> sources = getSources(args);
+		int formatted = 0;
+		for (JavaBaseline javaBaseline : JavaBaseline.values()) {
+			StreamsFormatter formatter = new StreamsFormatter(JavaFormatConfig.of(javaBaseline, IndentationStyle.TABS));
+			for (String source : sources) {
+				formatted += (format(formatter, source) ? 1 : 0);
+			}
+		}
+		System.out.println("Formatted " + formatted + " of " + sources.size() * JavaBaseline.values().length
+				+ " training sources");
+	}
+
+	private static boolean format(StreamsFormatter formatter, String source) {
+		try {
+			StreamsEdit edit = formatter.format(new StringReader(source));
+			edit.getFormattedContent();
+			edit.getReplaceEdits();
+			return true;
+		}
+		catch (Exception ex) {
+			return false;
+		}
+	}
+
+	private static List<String> getSources(String[] args) throws IOException {
+		List<String> sources = new ArrayList<>();
+		sources.add(SAMPLE_SOURCE);
+		for (String arg : args) {
+			for (Path path : getSourcePaths(Paths.get(arg))) {
+				sources.add(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+			}
+		}
+		return sources;
+	}
+
+	private static List<Path> getSourcePaths(Path path) throws IOException {
+		if (!Files.isDirectory(path)) {
+			return Files.isRegularFile(path) ? Collections.singletonList(path) : Collections.emptyList();
+		}
+		try (Stream<Path> paths = Files.walk(path)) {
+			return paths.filter(Files::isRegularFile)
+				.filter(ClassDataSharingTraining::isSourceFile)
+				.sorted()
+				.collect(Collectors.toList());
+		}
+	}
+
+	private static boolean isSourceFile(Path path) {
+		String name = path.getFileName().toString();
+		return name.endsWith(".java") || name.endsWith(".txt");
+	}
+
+}
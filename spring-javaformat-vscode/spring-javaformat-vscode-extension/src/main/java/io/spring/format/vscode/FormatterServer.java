@@ -0,0 +1,279 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.format.vscode;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.javaformat.config.JavaFormatConfig;
+import io.spring.javaformat.formatter.StreamsEdit;
+import io.spring.javaformat.formatter.StreamsFormatter;
+
+/**
+ * Long-lived formatter server that processes framed {@link Message messages} from the
+ * Visual Studio Code extension. Requests are read on the calling thread and formatted in
+ * order on a single worker thread so that {@code cancel} requests can be handled while a
+ * format is in progress.
+ * <p>
+ * Supported commands are:
+ * <ul>
+ * <li>{@code format} - format the body using the configuration found from the
+ * {@code cwd} header, optionally overridden by {@code java-baseline} and
+ * {@code indentation-style} headers. The response contains the formatted content unless
+ * a {@code result: edits} header is sent, in which case the minimal edits are returned
+ * instead. Each edit is written as an {@code <offset> <length> <text-length>} line
+ * followed by the replacement text, with all values measured in UTF-16 code units. An
+ * optional {@code ranges} header of comma separated {@code <offset>:<length>} pairs
+ * limits formatting to specific regions, in which case edits outside those regions are
+ * not returned.</li>
+ * <li>{@code cancel} - cancel the {@code format} request with the given {@code id}</li>
+ * <li>{@code shutdown} - stop the server once pending requests have completed</li>
+ * </ul>
+ * Each {@code format} request receives exactly one response with a {@code status} of
+ * {@code ok}, {@code error} or {@code cancelled}.
+ *
+ * @author Phillip Webb
+ */
+final class FormatterServer {
+
+	private static final String FORMAT = "format";
+
+	private static final String CANCEL = "cancel";
+
+	private static final String SHUTDOWN = "shutdown";
+
+	private static final String CWD = "cwd";
+
+	private static final String RESULT = "result";
+
+	private static final String EDITS = "edits";
+
+	private static final String RANGES = "ranges";
+
+	private static final String JAVA_BASELINE = "java-baseline";
+
+	private static final String INDENTATION_STYLE = "indentation-style";
+
+	private static final String[] CONFIG_HEADERS = { JAVA_BASELINE, INDENTATION_STYLE };
+
+	private final InputStream inputStream;
+
+	private final OutputStream outputStream;
+
+	private final ExecutorService executor;
+
+	private final Map<String, Message> active = new ConcurrentHashMap<>();
+
+	private final Map<JavaFormatConfig, StreamsFormatter> formatters = new ConcurrentHashMap<>();
+
+	FormatterServer(InputStream inputStream, OutputStream outputStream) {
+		this(inputStream, outputStream, Executors.newSingleThreadExecutor((runnable) -> {
+			Thread thread = new Thread(runnable, "spring-javaformat-server");
+			thread.setDaemon(true);
+			return thread;
+		}));
+	}
+
+	FormatterServer(InputStream inputStream, OutputStream outputStream, ExecutorService executor) {
+		this.inputStream = inputStream;
+		this.outputStream = outputStream;
+		this.executor = executor;
+	}
+
+	/**
+	 * Process requests until the input stream ends or a {@code shutdown} request is
+	 * received.
+	 * @throws IOException on IO error
+	 * @throws InterruptedException if interrupted while waiting for pending requests
+	 */
+	void run() throws IOException, InterruptedException {
+		try {
+			Message request = Message.readFrom(this.inputStream);
+			while (request != null && !SHUTDOWN.equals(getCommand(request))) {
+				handle(request);
+				request = Message.readFrom(this.inputStream);
+			}
+		}
+		finally {
+			this.executor.shutdown();
+			this.executor.awaitTermination(30, TimeUnit.SECONDS);
+		}
+	}
+
+	private void handle(Message request) throws IOException {
+		String id = request.getHeader(Message.ID);
+		String command = getCommand(request);
+		if (id == null) {
+			log("Ignoring " + command + " request without an id");
+			return;
+		}
+		if (CANCEL.equals(command)) {
+			if (this.active.remove(id) != null) {
+				respond(id, "cancelled", "");
+			}
+		}
+		else if (FORMAT.equals(command)) {
+			this.active.put(id, request);
+			this.executor.execute(() -> format(id, request));
+		}
+		else {
+			respond(id, "error", "Unknown command '" + command + "'");
+		}
+	}
+
+	private void format(String id, Message request) {
+		if (!this.active.containsKey(id)) {
+			return;
+		}
+		String status;
+		String body;
+		try {
+			StreamsFormatter formatter = getFormatter(getConfig(request));
+			int[][] ranges = getRanges(request);
+			StringReader reader = new StringReader(request.getBody());
+			StreamsEdit edit = (ranges != null) ? formatter.format(reader, null, ranges[0], ranges[1])
+					: formatter.format(reader);
+			status = "ok";
+			body = EDITS.equals(request.getHeader(RESULT)) ? getEdits(edit, ranges) : getFormattedContent(edit);
+		}
+		catch (Throwable ex) {
+			StringWriter stackTrace = new StringWriter();
+			ex.printStackTrace(new PrintWriter(stackTrace));
+			status = "error";
+			body = stackTrace.toString();
+		}
+		if (this.active.remove(id, request)) {
+			try {
+				respond(id, status, body);
+			}
+			catch (IOException ex) {
+				log("Unable to write response: " + ex.getMessage());
+			}
+		}
+	}
+
+	private String getFormattedContent(StreamsEdit edit) {
+		StringBuilder formatted = new StringBuilder();
+		edit.writeTo(formatted);
+		return formatted.toString();
+	}
+
+	private String getEdits(StreamsEdit edit, int[][] ranges) throws Exception {
+		StringBuilder edits = new StringBuilder();
+		edit.getReplaceEdits().forEach((replaceEdit) -> {
+			if (ranges != null && !intersects(ranges, replaceEdit.getOffset(), replaceEdit.getExclusiveEnd())) {
+				return;
+			}
+			String text = replaceEdit.getText();
+			edits.append(replaceEdit.getOffset())
+				.append(' ')
+				.append(replaceEdit.getLength())
+				.append(' ')
+				.append(text.length())
+				.append('\n')
+				.append(text);
+		});
+		return edits.toString();
+	}
+
+	private boolean intersects(int[][] ranges, int start, int end) {
+		for (int i = 0; i < ranges[0].length; i++) {
+			int rangeStart = ranges[0][i];
+			int rangeEnd = rangeStart + ranges[1][i];
+			if (start <= rangeEnd && end >= rangeStart) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int[][] getRanges(Message request) {
+		String header = request.getHeader(RANGES);
+		if (header == null || header.trim().isEmpty()) {
+			return null;
+		}
+		String[] pairs = header.split(",");
+		int[][] ranges = new int[2][pairs.length];
+		for (int i = 0; i < pairs.length; i++) {
+			String[] pair = pairs[i].trim().split(":");
+			if (pair.length != 2) {
+				throw new IllegalArgumentException("Malformed range '" + pairs[i] + "'");
+			}
+			ranges[0][i] = Integer.parseInt(pair[0].trim());
+			ranges[1][i] = Integer.parseInt(pair[1].trim());
+		}
+		return ranges;
+	}
+
+	private JavaFormatConfig getConfig(Message request) {
+		String cwd = request.getHeader(CWD);
+		JavaFormatConfig config = JavaFormatConfig.findFrom((cwd != null) ? new File(cwd) : null);
+		StringBuilder overrides = new StringBuilder();
+		for (String name : CONFIG_HEADERS) {
+			String value = request.getHeader(name);
+			if (value != null) {
+				overrides.append(name).append('=').append(value).append('\n');
+			}
+		}
+		if (overrides.length() > 0) {
+			JavaFormatConfig loaded = JavaFormatConfig
+				.load(new ByteArrayInputStream(overrides.toString().getBytes(StandardCharsets.UTF_8)));
+			boolean hasJavaBaseline = request.getHeader(JAVA_BASELINE) != null;
+			boolean hasIndentationStyle = request.getHeader(INDENTATION_STYLE) != null;
+			config = JavaFormatConfig.of(hasJavaBaseline ? loaded.getJavaBaseline() : config.getJavaBaseline(),
+					hasIndentationStyle ? loaded.getIndentationStyle() : config.getIndentationStyle());
+		}
+		return JavaFormatConfig.of(config.getJavaBaseline(), config.getIndentationStyle());
+	}
+
+	private StreamsFormatter getFormatter(JavaFormatConfig config) {
+		return this.formatters.computeIfAbsent(config, StreamsFormatter::new);
+	}
+
+	private String getCommand(Message request) {
+		String command = request.getHeader(Message.COMMAND);
+		return (command != null) ? command : FORMAT;
+	}
+
+	private void respond(String id, String status, String body) throws IOException {
+		Map<String, String> headers = new LinkedHashMap<>();
+		headers.put(Message.ID, id);
+		headers.put(Message.STATUS, status);
+		Message response = new Message(headers, body);
+		synchronized (this.outputStream) {
+			response.writeTo(this.outputStream);
+		}
+	}
+
+	private void log(String message) {
+		System.err.println(message);
+	}
+
+}
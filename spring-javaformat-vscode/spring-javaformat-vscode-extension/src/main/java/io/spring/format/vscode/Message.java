@@ -0,0 +1,148 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.format.vscode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A single framed message exchanged with the Visual Studio Code extension. Each message
+ * is a block of {@code name: value} header lines followed by an empty line and a UTF-8
+ * body of exactly {@code content-length} bytes.
+ *
+ * @author Phillip Webb
+ */
+final class Message {
+
+	static final String ID = "id";
+
+	static final String COMMAND = "command";
+
+	static final String STATUS = "status";
+
+	static final String CONTENT_LENGTH = "content-length";
+
+	private final Map<String, String> headers;
+
+	private final String body;
+
+	Message(Map<String, String> headers, String body) {
+		this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+		this.body = (body != null) ? body : "";
+	}
+
+	String getHeader(String name) {
+		return this.headers.get(name);
+	}
+
+	String getBody() {
+		return this.body;
+	}
+
+	/**
+	 * Write this message to the given output stream.
+	 * @param outputStream the destination output stream
+	 * @throws IOException on IO error
+	 */
+	void writeTo(OutputStream outputStream) throws IOException {
+		byte[] body = this.body.getBytes(StandardCharsets.UTF_8);
+		StringBuilder header = new StringBuilder();
+		this.headers.forEach((name, value) -> {
+			if (!CONTENT_LENGTH.equals(name)) {
+				header.append(name).append(": ").append(value).append('\n');
+			}
+		});
+		header.append(CONTENT_LENGTH).append(": ").append(body.length).append("\n\n");
+		outputStream.write(header.toString().getBytes(StandardCharsets.UTF_8));
+		outputStream.write(body);
+		outputStream.flush();
+	}
+
+	/**
+	 * Read the next message from the given input stream.
+	 * @param inputStream the source input stream
+	 * @return the message or {@code null} if the stream has ended
+	 * @throws IOException on IO error or if the message is malformed
+	 */
+	static Message readFrom(InputStream inputStream) throws IOException {
+		Map<String, String> headers = new LinkedHashMap<>();
+		String line = readLine(inputStream);
+		while (line != null && line.isEmpty() && headers.isEmpty()) {
+			line = readLine(inputStream);
+		}
+		if (line == null) {
+			return null;
+		}
+		while (!line.isEmpty()) {
+			int separator = line.indexOf(':');
+			if (separator == -1) {
+				throw new IOException("Malformed header '" + line + "'");
+			}
+			headers.put(line.substring(0, separator).trim().toLowerCase(), line.substring(separator + 1).trim());
+			line = readLine(inputStream);
+			if (line == null) {
+				throw new EOFException("Unexpected end of message headers");
+			}
+		}
+		int length = parseContentLength(headers.get(CONTENT_LENGTH));
+		byte[] body = new byte[length];
+		int offset = 0;
+		while (offset < length) {
+			int read = inputStream.read(body, offset, length - offset);
+			if (read == -1) {
+				throw new EOFException("Unexpected end of message body");
+			}
+			offset += read;
+		}
+		return new Message(headers, new String(body, StandardCharsets.UTF_8));
+	}
+
+	private static int parseContentLength(String value) throws IOException {
+		try {
+			int length = (value != null) ? Integer.parseInt(value) : 0;
+			if (length < 0) {
+				throw new IOException("Invalid content length " + value);
+			}
+			return length;
+		}
+		catch (NumberFormatException ex) {
+			throw new IOException("Invalid content length " + value, ex);
+		}
+	}
+
+	private static String readLine(InputStream inputStream) throws IOException {
+		ByteArrayOutputStream line = new ByteArrayOutputStream();
+		int b = inputStream.read();
+		if (b == -1) {
+			return null;
+		}
+		while (b != -1 && b != '\n') {
+			line.write(b);
+			b = inputStream.read();
+		}
+		String result = new String(line.toByteArray(), StandardCharsets.UTF_8);
+		return result.endsWith("\r") ? result.substring(0, result.length() - 1) : result;
+	}
+
+}
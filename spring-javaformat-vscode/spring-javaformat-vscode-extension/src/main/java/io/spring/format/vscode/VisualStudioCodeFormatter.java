@@ -16,13 +16,19 @@
 
 package io.spring.format.vscode;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.PrintStream;
+import java.util.Arrays;
 
 import io.spring.javaformat.config.JavaFormatConfig;
 import io.spring.javaformat.formatter.StreamsFormatter;
 
 /**
- * Called from the Visual Studio Code extension to format source code.
+ * Called from the Visual Studio Code extension to format source code. When started with
+ * {@code --server} a long-lived {@link FormatterServer} is run, otherwise source read from
+ * {@code System.in} is formatted once and written to {@code System.out}.
  *
  * @author Howard Zuo
  * @author Phillip Webb
@@ -33,6 +39,10 @@ public final class VisualStudioCodeFormatter {
 	}
 
 	private void run(String[] args) throws Exception {
+		if (Arrays.asList(args).contains("--server")) {
+			runServer();
+			return;
+		}
 		File location = new File(".").getAbsoluteFile();
 		log(String.format("Loading formatter from location '%s'", location));
 		JavaFormatConfig config = JavaFormatConfig.findFrom(location);
@@ -40,6 +50,13 @@ public final class VisualStudioCodeFormatter {
 		formatter.format(System.in).writeTo((Appendable) System.out);
 	}
 
+	private void runServer() throws Exception {
+		PrintStream out = System.out;
+		System.setOut(System.err);
+		log("Starting formatter server");
+		new FormatterServer(new BufferedInputStream(System.in), new BufferedOutputStream(out)).run();
+	}
+
 	private void log(String message) {
 		System.err.println(message);
 	}
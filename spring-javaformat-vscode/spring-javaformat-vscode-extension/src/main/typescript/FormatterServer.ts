@@ -0,0 +1,329 @@
+/*
+ * Copyright 2017-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import fs = require('fs')
+import path = require('path')
+import vscode = require('vscode')
+import childprocess = require('child_process')
+
+const JAR_PATH = path.resolve(__dirname, '..', 'runtime', 'spring-java-format.jar')
+
+const ARCHIVE_NAME = 'spring-java-format.jsa'
+
+const TRAINING_CLASS = 'io.spring.format.vscode.ClassDataSharingTraining'
+
+const LOG_ARGUMENTS = ['-Xlog:disable', '-Xlog:all=warning:stderr']
+
+const UNUSABLE_ARCHIVE = 'Unable to use shared archive'
+
+const HEADER_SEPARATOR = '\n\n'
+
+const MISSING_JAVA = `failed to find run spring-javaformat due to missing 'java' executable`
+
+/**
+ * A replacement of `length` characters at `offset` in the original text. Offsets and
+ * lengths are measured in UTF-16 code units.
+ */
+export interface FormatterEdit {
+  offset: number
+  length: number
+  text: string
+}
+
+/**
+ * A region of `length` characters at `offset` that should be formatted. Offsets and
+ * lengths are measured in UTF-16 code units.
+ */
+export interface FormatterRange {
+  offset: number
+  length: number
+}
+
+interface PendingRequest {
+  resolve: (formatted: string | undefined) => void
+  reject: (reason: string) => void
+}
+
+/**
+ * Client for the long-lived formatter process. The process is started on first use and
+ * restarted on the next request if it exits. Requests and responses are framed as
+ * `name: value` header lines, an empty line and a UTF-8 body of `content-length` bytes.
+ *
+ * When a storage path is provided, a class data sharing archive is created there by a
+ * background training run and used to speed up later starts. The JVM rejects the archive
+ * if it was created by a different `java` or for a different jar, in which case it is
+ * discarded and trained again.
+ */
+export default class FormatterServer implements vscode.Disposable {
+  private process: childprocess.ChildProcessWithoutNullStreams | undefined
+  private training: childprocess.ChildProcess | undefined
+  private trained = false
+  private buffer = Buffer.alloc(0)
+  private stderr = ''
+  private nextId = 1
+  private readonly pending = new Map<string, PendingRequest>()
+  private disposed = false
+
+  constructor(private readonly storagePath?: string) {}
+
+  formatEdits(
+    text: string,
+    cwd: string,
+    token: vscode.CancellationToken,
+    ranges?: FormatterRange[],
+  ): Promise<FormatterEdit[] | undefined> {
+    const headers: Record<string, string> = { result: 'edits' }
+    if (ranges) {
+      headers.ranges = ranges.map((range) => `${range.offset}:${range.length}`).join(',')
+    }
+    const result = this.format(text, cwd, token, headers)
+    return result.then((body) => (body !== undefined ? this.parseEdits(body) : undefined))
+  }
+
+  format(
+    text: string,
+    cwd: string,
+    token: vscode.CancellationToken,
+    headers: Record<string, string> = {},
+  ): Promise<string | undefined> {
+    if (this.disposed) {
+      return Promise.reject('spring-javaformat formatter server has been disposed')
+    }
+    if (token.isCancellationRequested) {
+      return Promise.resolve(undefined)
+    }
+    const process = this.start()
+    const id = String(this.nextId++)
+    return new Promise<string | undefined>((resolve, reject) => {
+      const cancellation = token.onCancellationRequested(() => {
+        if (this.pending.delete(id)) {
+          cancellation.dispose()
+          this.send(process, { id, command: 'cancel' })
+          resolve(undefined)
+        }
+      })
+      this.pending.set(id, {
+        resolve: (formatted) => {
+          cancellation.dispose()
+          resolve(formatted)
+        },
+        reject: (reason) => {
+          cancellation.dispose()
+          reject(reason)
+        },
+      })
+      this.send(process, { ...headers, id, command: 'format', cwd }, text)
+    })
+  }
+
+  dispose() {
+    this.disposed = true
+    const process = this.process
+    this.process = undefined
+    if (process) {
+      this.send(process, { id: 'shutdown', command: 'shutdown' })
+      process.stdin.end()
+    }
+    this.training?.kill()
+    this.training = undefined
+    this.rejectAll('spring-javaformat formatter server has been disposed')
+  }
+
+  private start(): childprocess.ChildProcessWithoutNullStreams {
+    if (this.process) {
+      return this.process
+    }
+    console.log('starting spring-javaformat formatter server')
+    const process = childprocess.spawn('java', [...this.sharingArguments(), '-jar', JAR_PATH, '--server'])
+    this.process = process
+    this.buffer = Buffer.alloc(0)
+    this.stderr = ''
+    process.stdout.on('data', (data: Buffer) => this.receive(data))
+    process.stderr.setEncoding('utf8')
+    process.stderr.on('data', (data: string) => {
+      console.log(`spring-javaformat: ${data}`)
+      if (data.includes(UNUSABLE_ARCHIVE)) {
+        this.discardArchive()
+      }
+      this.stderr = (this.stderr + data).slice(-8192)
+    })
+    process.stdin.on('error', (err) => console.log(`spring-javaformat stdin error ${err}`))
+    process.on('error', (err) => {
+      console.log(`spring-javaformat returned error ${err}`)
+      this.stopped(process, (<any>err).code === 'ENOENT' ? MISSING_JAVA : `${err}`)
+    })
+    process.on('exit', (code) => {
+      console.log(`spring-javaformat formatter server exited with code ${code}`)
+      this.stopped(process, this.stderr || `spring-javaformat exited with code ${code}`)
+    })
+    return process
+  }
+
+  private sharingArguments(): string[] {
+    const archive = this.archivePath()
+    if (archive === undefined) {
+      return []
+    }
+    if (fs.existsSync(archive)) {
+      return [`-XX:SharedArchiveFile=${archive}`, ...LOG_ARGUMENTS]
+    }
+    this.train(archive)
+    return []
+  }
+
+  private train(archive: string) {
+    if (this.trained || this.training !== undefined || this.disposed) {
+      return
+    }
+    this.trained = true
+    const trainingArchive = `${archive}.training`
+    try {
+      fs.mkdirSync(path.dirname(archive), { recursive: true })
+      this.deleteFile(trainingArchive)
+    } catch (err) {
+      console.log(`spring-javaformat unable to prepare class data sharing archive ${err}`)
+      return
+    }
+    console.log(`creating spring-javaformat class data sharing archive ${archive}`)
+    const args = [`-XX:ArchiveClassesAtExit=${trainingArchive}`, ...LOG_ARGUMENTS, '-cp', JAR_PATH, TRAINING_CLASS]
+    const training = childprocess.spawn('java', args, { stdio: 'ignore' })
+    this.training = training
+    training.on('error', (err) => console.log(`spring-javaformat class data sharing training failed ${err}`))
+    training.on('exit', (code) => {
+      if (this.training === training) {
+        this.training = undefined
+      }
+      try {
+        if (code === 0 && fs.existsSync(trainingArchive)) {
+          fs.renameSync(trainingArchive, archive)
+        } else {
+          console.log(`spring-javaformat class data sharing training exited with code ${code}`)
+          this.deleteFile(trainingArchive)
+        }
+      } catch (err) {
+        console.log(`spring-javaformat unable to save class data sharing archive ${err}`)
+      }
+    })
+  }
+
+  private discardArchive() {
+    const archive = this.archivePath()
+    if (archive !== undefined) {
+      console.log(`discarding unusable spring-javaformat class data sharing archive ${archive}`)
+      try {
+        this.deleteFile(archive)
+      } catch (err) {
+        console.log(`spring-javaformat unable to discard class data sharing archive ${err}`)
+        return
+      }
+      this.trained = false
+      this.train(archive)
+    }
+  }
+
+  private archivePath(): string | undefined {
+    return this.storagePath !== undefined ? path.join(this.storagePath, ARCHIVE_NAME) : undefined
+  }
+
+  private deleteFile(file: string) {
+    if (fs.existsSync(file)) {
+      // Archives are written read-only which prevents deletion on Windows
+      fs.chmodSync(file, 0o644)
+      fs.unlinkSync(file)
+    }
+  }
+
+  private stopped(process: childprocess.ChildProcessWithoutNullStreams, reason: string) {
+    if (this.process === process) {
+      this.process = undefined
+    }
+    this.rejectAll(reason)
+  }
+
+  private rejectAll(reason: string) {
+    const requests = Array.from(this.pending.values())
+    this.pending.clear()
+    requests.forEach((request) => request.reject(reason))
+  }
+
+  private send(process: childprocess.ChildProcessWithoutNullStreams, headers: Record<string, string>, body = '') {
+    const content = Buffer.from(body, 'utf8')
+    let header = ''
+    for (const name in headers) {
+      header += `${name}: ${headers[name]}\n`
+    }
+    header += `content-length: ${content.length}${HEADER_SEPARATOR}`
+    if (process.stdin.writable) {
+      process.stdin.write(Buffer.concat([Buffer.from(header, 'utf8'), content]))
+    }
+  }
+
+  private receive(data: Buffer) {
+    this.buffer = Buffer.concat([this.buffer, data])
+    let separator = this.buffer.indexOf(HEADER_SEPARATOR)
+    while (separator !== -1) {
+      const headers = this.parseHeaders(this.buffer.toString('utf8', 0, separator))
+      const length = parseInt(headers['content-length'] || '0', 10)
+      const start = separator + HEADER_SEPARATOR.length
+      if (this.buffer.length < start + length) {
+        return
+      }
+      const body = this.buffer.toString('utf8', start, start + length)
+      this.buffer = this.buffer.subarray(start + length)
+      this.handle(headers, body)
+      separator = this.buffer.indexOf(HEADER_SEPARATOR)
+    }
+  }
+
+  private parseHeaders(text: string): Record<string, string> {
+    const headers: Record<string, string> = {}
+    for (const line of text.split('\n')) {
+      const separator = line.indexOf(':')
+      if (separator !== -1) {
+        headers[line.substring(0, separator).trim().toLowerCase()] = line.substring(separator + 1).trim()
+      }
+    }
+    return headers
+  }
+
+  private parseEdits(body: string): FormatterEdit[] {
+    const edits: FormatterEdit[] = []
+    let position = 0
+    while (position < body.length) {
+      const lineEnd = body.indexOf('\n', position)
+      const [offset, length, textLength] = body.substring(position, lineEnd).split(' ').map(Number)
+      const textStart = lineEnd + 1
+      edits.push({ offset, length, text: body.substring(textStart, textStart + textLength) })
+      position = textStart + textLength
+    }
+    return edits
+  }
+
+  private handle(headers: Record<string, string>, body: string) {
+    const request = this.pending.get(headers['id'])
+    if (!request) {
+      return
+    }
+    this.pending.delete(headers['id'])
+    if (headers['status'] === 'ok') {
+      request.resolve(body)
+    } else if (headers['status'] === 'cancelled') {
+      request.resolve(undefined)
+    } else {
+      request.reject(body)
+    }
+  }
+}
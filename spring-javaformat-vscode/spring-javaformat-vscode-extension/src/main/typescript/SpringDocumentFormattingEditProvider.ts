@@ -16,20 +16,61 @@
 
 import path = require('path')
 import vscode = require('vscode')
-import childprocess = require('child_process')
+import FormatterServer, { FormatterRange } from './FormatterServer'
 
-const JAR_PATH = path.resolve(__dirname, '..', 'runtime', 'spring-java-format.jar')
+export default class SpringDocumentFormattingEditProvider
+  implements
+    vscode.DocumentFormattingEditProvider,
+    vscode.DocumentRangeFormattingEditProvider,
+    vscode.OnTypeFormattingEditProvider
+{
+  constructor(private readonly server: FormatterServer) {}
 
-export default class SpringDocumentFormattingEditProvider implements vscode.DocumentFormattingEditProvider {
   provideDocumentFormattingEdits(
     document: vscode.TextDocument,
     options: vscode.FormattingOptions,
     token: vscode.CancellationToken,
+  ): vscode.ProviderResult<vscode.TextEdit[]> {
+    return this.provideEdits(document, token)
+  }
+
+  provideDocumentRangeFormattingEdits(
+    document: vscode.TextDocument,
+    range: vscode.Range,
+    options: vscode.FormattingOptions,
+    token: vscode.CancellationToken,
+  ): vscode.ProviderResult<vscode.TextEdit[]> {
+    return this.provideEdits(document, token, [range])
+  }
+
+  provideDocumentRangesFormattingEdits(
+    document: vscode.TextDocument,
+    ranges: vscode.Range[],
+    options: vscode.FormattingOptions,
+    token: vscode.CancellationToken,
+  ): vscode.ProviderResult<vscode.TextEdit[]> {
+    return this.provideEdits(document, token, ranges)
+  }
+
+  provideOnTypeFormattingEdits(
+    document: vscode.TextDocument,
+    position: vscode.Position,
+    ch: string,
+    options: vscode.FormattingOptions,
+    token: vscode.CancellationToken,
+  ): vscode.ProviderResult<vscode.TextEdit[]> {
+    return this.provideEdits(document, token, [document.lineAt(position.line).range])
+  }
+
+  private provideEdits(
+    document: vscode.TextDocument,
+    token: vscode.CancellationToken,
+    ranges?: readonly vscode.Range[],
   ): vscode.ProviderResult<vscode.TextEdit[]> {
     if (vscode.window.visibleTextEditors.every((editor) => editor.document.fileName !== document.fileName)) {
       return []
     }
-    return this.runFormatter(document, token).then(
+    return this.runFormatter(document, token, ranges).then(
       (edits) => edits,
       (err) => {
         if (err) {
@@ -40,39 +81,29 @@ export default class SpringDocumentFormattingEditProvider implements vscode.Docu
     )
   }
 
-  private runFormatter(document: vscode.TextDocument, token: vscode.CancellationToken): Promise<vscode.TextEdit[]> {
-    return new Promise<vscode.TextEdit[]>((resolve, reject) => {
-      console.log(`formatting ${document.uri} using spring-javaformat`)
-      let stdout = ''
-      let stderr = ''
-      const cwd = path.dirname(document.fileName)
-      const args = ['-jar', JAR_PATH]
-      const process = childprocess.spawn('java', args, { cwd })
-      token.onCancellationRequested(() => !process.killed && process.kill())
-      process.stdout.setEncoding('utf8')
-      process.stdout.on('data', (data) => (stdout += data))
-      process.stderr.on('data', (data) => (stderr += data))
-      process.on('error', (err) => {
-        console.log(`spring-javaformat returned error ${err}`)
-        if (err && (<any>err).code === 'ENOENT') {
-          return reject(`failed to find run spring-javaformat due to missing 'java' executable`)
-        }
-      })
-      process.on('close', (code) => {
-        if (code !== 0) {
-          console.log(`spring-javaformat returned error code ${code}`)
-          return reject(stderr)
-        }
-        console.log('spring-javaformat returned without error')
-        const fileStart = new vscode.Position(0, 0)
-        const fileEnd = document.lineAt(document.lineCount - 1).range.end
-        const textEdits: vscode.TextEdit[] = [new vscode.TextEdit(new vscode.Range(fileStart, fileEnd), stdout)]
-        return resolve(textEdits)
-      })
-      if (process.pid) {
-        console.log('sending document data to spring-javaformat')
-        process.stdin.end(document.getText())
+  private runFormatter(
+    document: vscode.TextDocument,
+    token: vscode.CancellationToken,
+    ranges?: readonly vscode.Range[],
+  ): Promise<vscode.TextEdit[]> {
+    console.log(`formatting ${document.uri} using spring-javaformat`)
+    const cwd = path.dirname(document.fileName)
+    const formatterRanges = ranges?.map((range) => this.toFormatterRange(document, range))
+    return this.server.formatEdits(document.getText(), cwd, token, formatterRanges).then((edits) => {
+      if (edits === undefined) {
+        return []
       }
+      console.log(`spring-javaformat returned ${edits.length} edits without error`)
+      return edits.map((edit) => {
+        const start = document.positionAt(edit.offset)
+        const end = document.positionAt(edit.offset + edit.length)
+        return new vscode.TextEdit(new vscode.Range(start, end), edit.text)
+      })
     })
   }
+
+  private toFormatterRange(document: vscode.TextDocument, range: vscode.Range): FormatterRange {
+    const offset = document.offsetAt(range.start)
+    return { offset, length: document.offsetAt(range.end) - offset }
+  }
 }
@@ -15,19 +15,22 @@
  */
 
 import * as vscode from 'vscode'
+import FormatterServer from './FormatterServer'
 import SpringDocumentFormattingEditProvider from './SpringDocumentFormattingEditProvider'
 
+const SELECTOR: vscode.DocumentSelector = [
+  {
+    language: 'java',
+    scheme: 'file',
+  },
+]
+
 export function activate(context: vscode.ExtensionContext) {
   console.log('Activated spring-javaformat extension')
-  context.subscriptions.push(
-    vscode.languages.registerDocumentFormattingEditProvider(
-      [
-        {
-          language: 'java',
-          scheme: 'file',
-        },
-      ],
-      new SpringDocumentFormattingEditProvider(),
-    ),
-  )
+  const server = new FormatterServer(context.globalStorageUri.fsPath)
+  const provider = new SpringDocumentFormattingEditProvider(server)
+  context.subscriptions.push(server)
+  context.subscriptions.push(vscode.languages.registerDocumentFormattingEditProvider(SELECTOR, provider))
+  context.subscriptions.push(vscode.languages.registerDocumentRangeFormattingEditProvider(SELECTOR, provider))
+  context.subscriptions.push(vscode.languages.registerOnTypeFormattingEditProvider(SELECTOR, provider, '}', ';'))
 }
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.format.vscode;
+
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link FormatterServer}.
+ *
+ * @author agent (agent@local)
+ */
+class FormatterServerTests {
+
+	private static final String SOURCE = "public class Test {public void run(){}}\n";
+
+	private static final String FORMATTED = "public class Test {\n\n\tpublic void run() {\n\t}\n\n}\n";
+
+	private ExecutorService executor;
+
+	private PipedOutputStream requests;
+
+	private PipedInputStream responses;
+
+	private Thread serverThread;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		this.executor = Executors.newSingleThreadExecutor();
+		this.requests = new PipedOutputStream();
+		PipedInputStream serverInput = new PipedInputStream(this.requests, 65536);
+		PipedOutputStream serverOutput = new PipedOutputStream();
+		this.responses = new PipedInputStream(serverOutput, 65536);
+		FormatterServer server = new FormatterServer(serverInput, serverOutput, this.executor);
+		this.serverThread = new Thread(() -> {
+			try {
+				server.run();
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+		this.serverThread.start();
+	}
+
+	@AfterEach
+	void stopServer() throws Exception {
+		this.requests.close();
+		this.serverThread.join(TimeUnit.SECONDS.toMillis(30));
+	}
+
+	@Test
+	void formatRespondsWithFormattedContent() throws IOException {
+		send(request("1", "format"), SOURCE);
+		Message response = Message.readFrom(this.responses);
+		assertThat(response.getHeader(Message.ID)).isEqualTo("1");
+		assertThat(response.getHeader(Message.STATUS)).isEqualTo("ok");
+		assertThat(response.getBody()).isEqualTo(FORMATTED);
+	}
+
+	@Test
+	void formatWithoutCommandHeaderFormats() throws IOException {
+		send(request("1", null), SOURCE);
+		assertThat(Message.readFrom(this.responses).getBody()).isEqualTo(FORMATTED);
+	}
+
+	@Test
+	void formatWithEditsResultRespondsWithEdits() throws IOException {
+		Map<String, String> headers = request("1", "format");
+		headers.put("result", "edits");
+		send(headers, "public class Test {\n}\n\n");
+		Message response = Message.readFrom(this.responses);
+		assertThat(response.getHeader(Message.STATUS)).isEqualTo("ok");
+		assertThat(response.getBody()).isEqualTo("20 0 1\n\n22 1 0\n");
+	}
+
+	@Test
+	void formatWithSpacesHeaderUsesSpaces() throws IOException {
+		Map<String, String> headers = request("1", "format");
+		headers.put("indentation-style", "spaces");
+		send(headers, SOURCE);
+		assertThat(Message.readFrom(this.responses).getBody()).isEqualTo(FORMATTED.replace("\t", "    "));
+	}
+
+	@Test
+	void formatWhenRangesMalformedRespondsWithError() throws IOException {
+		Map<String, String> headers = request("1", "format");
+		headers.put("ranges", "bad");
+		send(headers, SOURCE);
+		Message response = Message.readFrom(this.responses);
+		assertThat(response.getHeader(Message.ID)).isEqualTo("1");
+		assertThat(response.getHeader(Message.STATUS)).isEqualTo("error");
+		assertThat(response.getBody()).contains("Malformed range 'bad'");
+	}
+
+	@Test
+	void cancelWhenPendingRespondsCancelledAndSkipsFormat() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		this.executor.execute(() -> await(latch));
+		send(request("1", "format"), SOURCE);
+		send(request("1", "cancel"), "");
+		Message response = Message.readFrom(this.responses);
+		assertThat(response.getHeader(Message.ID)).isEqualTo("1");
+		assertThat(response.getHeader(Message.STATUS)).isEqualTo("cancelled");
+		latch.countDown();
+		send(request("2", "format"), SOURCE);
+		assertThat(Message.readFrom(this.responses).getHeader(Message.ID)).isEqualTo("2");
+	}
+
+	@Test
+	void cancelWhenUnknownIdDoesNotRespond() throws IOException {
+		send(request("1", "cancel"), "");
+		send(request("2", "format"), SOURCE);
+		Message response = Message.readFrom(this.responses);
+		assertThat(response.getHeader(Message.ID)).isEqualTo("2");
+		assertThat(response.getHeader(Message.STATUS)).isEqualTo("ok");
+	}
+
+	@Test
+	void unknownCommandRespondsWithError() throws IOException {
+		send(request("1", "explode"), "");
+		Message response = Message.readFrom(this.responses);
+		assertThat(response.getHeader(Message.ID)).isEqualTo("1");
+		assertThat(response.getHeader(Message.STATUS)).isEqualTo("error");
+		assertThat(response.getBody()).isEqualTo("Unknown command 'explode'");
+	}
+
+	@Test
+	void requestWithoutIdIsIgnored() throws IOException {
+		send(request(null, "format"), SOURCE);
+		send(request("2", "format"), SOURCE);
+		assertThat(Message.readFrom(this.responses).getHeader(Message.ID)).isEqualTo("2");
+	}
+
+	@Test
+	void shutdownStopsServerAfterPendingRequests() throws Exception {
+		send(request("1", "format"), SOURCE);
+		send(request("2", "shutdown"), "");
+		this.serverThread.join(TimeUnit.SECONDS.toMillis(30));
+		assertThat(this.serverThread.isAlive()).isFalse();
+		assertThat(this.executor.isTerminated()).isTrue();
+		assertThat(Message.readFrom(this.responses).getHeader(Message.STATUS)).isEqualTo("ok");
+	}
+
+	private Map<String, String> request(String id, String command) {
+		Map<String, String> headers = new LinkedHashMap<>();
+		if (id != null) {
+			headers.put(Message.ID, id);
+		}
+		if (command != null) {
+			headers.put(Message.COMMAND, command);
+		}
+		return headers;
+	}
+
+	private void send(Map<String, String> headers, String body) throws IOException {
+		new Message(headers, body).writeTo(this.requests);
+	}
+
+	private void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
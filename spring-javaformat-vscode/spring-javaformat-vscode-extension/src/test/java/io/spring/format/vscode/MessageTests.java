@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.format.vscode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+/**
+ * Tests for {@link Message}.
+ *
+ * @author agent (agent@local)
+ */
+class MessageTests {
+
+	@Test
+	void writeToWritesHeadersAndContentLengthInBytes() throws IOException {
+		Map<String, String> headers = new LinkedHashMap<>();
+		headers.put(Message.ID, "1");
+		headers.put(Message.STATUS, "ok");
+		headers.put(Message.CONTENT_LENGTH, "999");
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		new Message(headers, "caf\u00e9").writeTo(outputStream);
+		assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8))
+			.isEqualTo("id: 1\nstatus: ok\ncontent-length: 5\n\ncaf\u00e9");
+	}
+
+	@Test
+	void readFromReadsHeadersAndBody() throws IOException {
+		InputStream inputStream = stream("ID: 1\r\ncommand:format\r\ncontent-length: 6\r\n\r\na\n\nb\r\nc");
+		Message message = Message.readFrom(inputStream);
+		assertThat(message.getHeader(Message.ID)).isEqualTo("1");
+		assertThat(message.getHeader(Message.COMMAND)).isEqualTo("format");
+		assertThat(message.getBody()).isEqualTo("a\n\nb\r\n");
+		assertThat(inputStream.read()).isEqualTo('c');
+	}
+
+	@Test
+	void readFromReadsConsecutiveMessages() throws IOException {
+		InputStream inputStream = stream("id: 1\ncontent-length: 2\n\n\u00e9\n\nid: 2\n\n");
+		assertThat(Message.readFrom(inputStream).getBody()).isEqualTo("\u00e9");
+		Message second = Message.readFrom(inputStream);
+		assertThat(second.getHeader(Message.ID)).isEqualTo("2");
+		assertThat(second.getBody()).isEmpty();
+		assertThat(Message.readFrom(inputStream)).isNull();
+	}
+
+	@Test
+	void readFromWhenWrittenMessageReturnsSameMessage() throws IOException {
+		Map<String, String> headers = new LinkedHashMap<>();
+		headers.put(Message.ID, "1");
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		new Message(headers, "public class Test {\n}\n").writeTo(outputStream);
+		Message message = Message.readFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+		assertThat(message.getHeader(Message.ID)).isEqualTo("1");
+		assertThat(message.getBody()).isEqualTo("public class Test {\n}\n");
+	}
+
+	@Test
+	void readFromWhenEmptyReturnsNull() throws IOException {
+		assertThat(Message.readFrom(stream(""))).isNull();
+		assertThat(Message.readFrom(stream("\n\n"))).isNull();
+	}
+
+	@Test
+	void readFromWhenMalformedHeaderThrowsException() {
+		assertThatIOException().isThrownBy(() -> Message.readFrom(stream("id 1\n\n")))
+			.withMessage("Malformed header 'id 1'");
+	}
+
+	@Test
+	void readFromWhenInvalidContentLengthThrowsException() {
+		assertThatIOException().isThrownBy(() -> Message.readFrom(stream("content-length: x\n\n")))
+			.withMessage("Invalid content length x");
+		assertThatIOException().isThrownBy(() -> Message.readFrom(stream("content-length: -1\n\n")))
+			.withMessage("Invalid content length -1");
+	}
+
+	@Test
+	void readFromWhenHeadersTruncatedThrowsException() {
+		assertThatExceptionOfType(EOFException.class).isThrownBy(() -> Message.readFrom(stream("id: 1\n")))
+			.withMessage("Unexpected end of message headers");
+	}
+
+	@Test
+	void readFromWhenBodyTruncatedThrowsException() {
+		assertThatExceptionOfType(EOFException.class)
+			.isThrownBy(() -> Message.readFrom(stream("content-length: 10\n\nshort")))
+			.withMessage("Unexpected end of message body");
+	}
+
+	private InputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -26,19 +26,46 @@ suite('Extension Test Suite', () => {
   test('Format file', async () => {
     const initial = 'public static class Test {public static void main(String[] args){}}\n'
     const expected = 'public static class Test {\n\n\tpublic static void main(String[] args) {\n\t}\n\n}\n'
-    if (!fs.existsSync(WORKSPACE_PATH)) {
-      fs.mkdirSync(WORKSPACE_PATH)
+    assert.deepEqual(await format(initial), expected)
+  })
+
+  test('Format file again reuses formatter server', async () => {
+    const initial = 'public static class Test {public void run(){}}\n'
+    const expected = 'public static class Test {\n\n\tpublic void run() {\n\t}\n\n}\n'
+    await format(initial)
+    const messages: unknown[] = []
+    const log = console.log
+    console.log = (...data: unknown[]) => {
+      messages.push(data[0])
+      log(...data)
     }
-    fs.closeSync(fs.openSync(FILE_PATH, 'w'))
-    const document = await vscode.workspace.openTextDocument(vscode.Uri.file(FILE_PATH))
-    const editor = await vscode.window.showTextDocument(document)
-    await editor.edit((builder) => {
-      builder.delete(new vscode.Range(new vscode.Position(0, 0), document.positionAt(document.getText().length)))
-      builder.insert(new vscode.Position(0, 0), initial)
-    })
-    editor.selection = new vscode.Selection(0, 0, 0, 0)
-    await vscode.commands.executeCommand('editor.action.formatDocument')
-    const actual = document.getText()
-    assert.deepEqual(actual, expected)
+    try {
+      assert.deepEqual(await format(initial), expected)
+    } finally {
+      console.log = log
+    }
+    assert.ok(!messages.includes('starting spring-javaformat formatter server'))
+  })
+
+  test('Format selection only formats selected lines', async () => {
+    const initial = 'public class Test {\n\n\tpublic void a(){}\n\n\tpublic void b(){}\n\n}\n'
+    const expected = 'public class Test {\n\n\tpublic void a(){}\n\n\tpublic void b() {\n\t}\n\n}\n'
+    assert.deepEqual(await format(initial, new vscode.Selection(4, 0, 4, 18)), expected)
   })
 })
+
+async function format(initial: string, selection?: vscode.Selection): Promise<string> {
+  if (!fs.existsSync(WORKSPACE_PATH)) {
+    fs.mkdirSync(WORKSPACE_PATH)
+  }
+  fs.closeSync(fs.openSync(FILE_PATH, 'w'))
+  const document = await vscode.workspace.openTextDocument(vscode.Uri.file(FILE_PATH))
+  const editor = await vscode.window.showTextDocument(document)
+  await editor.edit((builder) => {
+    builder.delete(new vscode.Range(new vscode.Position(0, 0), document.positionAt(document.getText().length)))
+    builder.insert(new vscode.Position(0, 0), initial)
+  })
+  editor.selection = selection ?? new vscode.Selection(0, 0, 0, 0)
+  await vscode.commands.executeCommand(selection ? 'editor.action.formatSelection' : 'editor.action.formatDocument')
+  return document.getText()
+}
@@ -31,7 +31,7 @@ import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
 import io.spring.javaformat.config.IndentationStyle;
-import io.spring.javaformat.config.JavaFormatConfig;
+import io.spring.javaformat.config.JavaFormatConfigResolver;
 
 /**
  * Checks that leading whitespace matches the expected indentation style.
@@ -85,7 +85,7 @@ public class SpringLeadingWhitespaceCheck extends AbstractSpringCheck {
 			return;
 		}
 		IndentationStyle indentationStyle = (this.indentationStyle != null) ? this.indentationStyle
-				: JavaFormatConfig.findFrom(file.getParentFile()).getIndentationStyle();
+				: JavaFormatConfigResolver.getShared().resolve(file.getParentFile()).getIndentationStyle();
 		for (int i = 0; i < fileText.size(); i++) {
 			int lineNo = i + 1;
 			if (isInTextBlock(lineNo)) {
@@ -42,4 +42,27 @@ class DefaultJavaFormatConfig implements JavaFormatConfig {
 		return this.indentationStyle;
 	}
 
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		DefaultJavaFormatConfig other = (DefaultJavaFormatConfig) obj;
+		return this.javaBaseline == other.javaBaseline && this.indentationStyle == other.indentationStyle;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * this.javaBaseline.hashCode() + this.indentationStyle.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "JavaFormatConfig[javaBaseline=" + this.javaBaseline + ", indentationStyle=" + this.indentationStyle
+				+ "]";
+	}
+
 }
@@ -58,6 +58,8 @@ public interface JavaFormatConfig {
 
 	/**
 	 * Find and load a {@code .springjavaformatconfig} by searching from the given file.
+	 * Callers that search repeatedly should consider using a
+	 * {@link JavaFormatConfigResolver} which caches results.
 	 * @param file the file or directory to search from
 	 * @return a loaded {@link JavaFormatConfig} or {@link #DEFAULT} if no
 	 * {@code .springjavaformatconfig} file is found
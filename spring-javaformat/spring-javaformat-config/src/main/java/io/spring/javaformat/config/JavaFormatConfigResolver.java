@@ -0,0 +1,189 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.config;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves a {@link JavaFormatConfig} by searching for a {@code .springjavaformatconfig}
+ * file in the same way as {@link JavaFormatConfig#findFrom(File)}. Results are cached and
+ * only checked against the file system, using last modified times and file sizes, once
+ * the recheck interval has passed.
+ *
+ * @author Phillip Webb
+ */
+public final class JavaFormatConfigResolver {
+
+	private static final String FILE_NAME = ".springjavaformatconfig";
+
+	private static final long DEFAULT_RECHECK_INTERVAL_MILLIS = 1000;
+
+	private static final int MAX_SIZE = 1024;
+
+	private static final JavaFormatConfigResolver SHARED = new JavaFormatConfigResolver();
+
+	private final long recheckIntervalNanos;
+
+	private final Map<File, Resolution> cache = new LinkedHashMap<File, Resolution>(16, 0.75f, true) {
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<File, Resolution> eldest) {
+			return size() > MAX_SIZE;
+		}
+
+	};
+
+	/**
+	 * Create a new {@link JavaFormatConfigResolver} that rechecks the file system at most
+	 * once a second.
+	 */
+	public JavaFormatConfigResolver() {
+		this(DEFAULT_RECHECK_INTERVAL_MILLIS);
+	}
+
+	/**
+	 * Create a new {@link JavaFormatConfigResolver} instance.
+	 * @param recheckIntervalMillis the minimum time before a cached result is checked
+	 * against the file system again
+	 */
+	public JavaFormatConfigResolver(long recheckIntervalMillis) {
+		this.recheckIntervalNanos = TimeUnit.MILLISECONDS.toNanos(recheckIntervalMillis);
+	}
+
+	/**
+	 * Resolve the {@link JavaFormatConfig} for the given path.
+	 * @param path the file or directory to search from
+	 * @return the resolved {@link JavaFormatConfig} or {@link JavaFormatConfig#DEFAULT}
+	 * if no {@code .springjavaformatconfig} file is found
+	 */
+	public JavaFormatConfig resolve(Path path) {
+		return resolve((path != null) ? path.toFile() : (File) null);
+	}
+
+	/**
+	 * Resolve the {@link JavaFormatConfig} for the given file.
+	 * @param file the file or directory to search from
+	 * @return the resolved {@link JavaFormatConfig} or {@link JavaFormatConfig#DEFAULT}
+	 * if no {@code .springjavaformatconfig} file is found
+	 */
+	public JavaFormatConfig resolve(File file) {
+		if (file == null) {
+			return JavaFormatConfig.DEFAULT;
+		}
+		long now = System.nanoTime();
+		Resolution resolution;
+		synchronized (this.cache) {
+			resolution = this.cache.get(file);
+		}
+		if (resolution == null || !resolution.isValid(now, this.recheckIntervalNanos)) {
+			resolution = new Resolution(file, now);
+			synchronized (this.cache) {
+				this.cache.put(file, resolution);
+			}
+		}
+		return resolution.config;
+	}
+
+	/**
+	 * Clear all cached results.
+	 */
+	public void clear() {
+		synchronized (this.cache) {
+			this.cache.clear();
+		}
+	}
+
+	/**
+	 * Return a shared {@link JavaFormatConfigResolver} instance.
+	 * @return the shared instance
+	 */
+	public static JavaFormatConfigResolver getShared() {
+		return SHARED;
+	}
+
+	/**
+	 * The result of a search along with the file system state it was based on.
+	 */
+	private static final class Resolution {
+
+		private final File[] files;
+
+		private final long[] lastModified;
+
+		private final long configLength;
+
+		private final JavaFormatConfig config;
+
+		private volatile long checked;
+
+		Resolution(File file, long now) {
+			List<File> files = new ArrayList<>();
+			File directory = (file.isFile()) ? file.getParentFile() : file;
+			File configFile = null;
+			while (directory != null && configFile == null) {
+				files.add(directory);
+				File candidate = new File(directory, FILE_NAME);
+				configFile = (candidate.isFile()) ? candidate : null;
+				directory = directory.getParentFile();
+			}
+			if (configFile != null) {
+				files.add(configFile);
+			}
+			this.files = files.toArray(new File[0]);
+			this.lastModified = new long[this.files.length];
+			for (int i = 0; i < this.files.length; i++) {
+				this.lastModified[i] = this.files[i].lastModified();
+			}
+			this.configLength = (configFile != null) ? configFile.length() : -1;
+			this.config = load(configFile);
+			this.checked = now;
+		}
+
+		private JavaFormatConfig load(File configFile) {
+			try {
+				return (configFile != null) ? JavaFormatConfig.load(configFile) : JavaFormatConfig.DEFAULT;
+			}
+			catch (Exception ex) {
+				return JavaFormatConfig.DEFAULT;
+			}
+		}
+
+		boolean isValid(long now, long recheckIntervalNanos) {
+			if (now - this.checked < recheckIntervalNanos) {
+				return true;
+			}
+			for (int i = 0; i < this.files.length; i++) {
+				if (this.files[i].lastModified() != this.lastModified[i]) {
+					return false;
+				}
+			}
+			if (this.configLength != -1 && this.files[this.files.length - 1].length() != this.configLength) {
+				return false;
+			}
+			this.checked = now;
+			return true;
+		}
+
+	}
+
+}
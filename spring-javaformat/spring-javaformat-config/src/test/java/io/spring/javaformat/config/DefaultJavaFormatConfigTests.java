@@ -0,0 +1,40 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DefaultJavaFormatConfig}.
+ *
+ * @author Phillip Webb
+ */
+class DefaultJavaFormatConfigTests {
+
+	@Test
+	void equalsAndHashCode() {
+		JavaFormatConfig config1 = JavaFormatConfig.of(JavaBaseline.V17, IndentationStyle.TABS);
+		JavaFormatConfig config2 = JavaFormatConfig.of(JavaBaseline.V17, IndentationStyle.TABS);
+		JavaFormatConfig config3 = JavaFormatConfig.of(JavaBaseline.V8, IndentationStyle.TABS);
+		JavaFormatConfig config4 = JavaFormatConfig.of(JavaBaseline.V17, IndentationStyle.SPACES);
+		assertThat(config1).isEqualTo(config1).isEqualTo(config2).isNotEqualTo(config3).isNotEqualTo(config4);
+		assertThat(config1.hashCode()).isEqualTo(config2.hashCode());
+	}
+
+}
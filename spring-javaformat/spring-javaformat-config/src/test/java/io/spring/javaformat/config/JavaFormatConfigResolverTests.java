@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link JavaFormatConfigResolver}.
+ *
+ * @author Phillip Webb
+ */
+class JavaFormatConfigResolverTests {
+
+	@TempDir
+	File temp;
+
+	@Test
+	void resolveWhenNullReturnsDefault() {
+		assertThat(new JavaFormatConfigResolver().resolve((File) null)).isSameAs(JavaFormatConfig.DEFAULT);
+	}
+
+	@Test
+	void resolveWhenNoConfigFileReturnsDefault() {
+		assertThat(new JavaFormatConfigResolver().resolve(this.temp)).isSameAs(JavaFormatConfig.DEFAULT);
+	}
+
+	@Test
+	void resolveFindsConfigFileInParentDirectory() throws Exception {
+		writeConfig(this.temp, "indentation-style=spaces");
+		File directory = new File(this.temp, "src/main/java");
+		directory.mkdirs();
+		File file = new File(directory, "Test.java");
+		file.createNewFile();
+		JavaFormatConfigResolver resolver = new JavaFormatConfigResolver();
+		assertThat(resolver.resolve(directory).getIndentationStyle()).isEqualTo(IndentationStyle.SPACES);
+		assertThat(resolver.resolve(file.toPath()).getIndentationStyle()).isEqualTo(IndentationStyle.SPACES);
+	}
+
+	@Test
+	void resolveWhenUnchangedReturnsCachedConfig() throws Exception {
+		writeConfig(this.temp, "indentation-style=spaces");
+		JavaFormatConfigResolver resolver = new JavaFormatConfigResolver(0);
+		JavaFormatConfig config = resolver.resolve(this.temp);
+		assertThat(resolver.resolve(this.temp)).isSameAs(config);
+	}
+
+	@Test
+	void resolveWhenConfigFileChangedReloadsConfig() throws Exception {
+		File configFile = writeConfig(this.temp, "indentation-style=spaces");
+		JavaFormatConfigResolver resolver = new JavaFormatConfigResolver(0);
+		assertThat(resolver.resolve(this.temp).getIndentationStyle()).isEqualTo(IndentationStyle.SPACES);
+		writeConfig(this.temp, "indentation-style=tabs");
+		configFile.setLastModified(configFile.lastModified() - 10000);
+		assertThat(resolver.resolve(this.temp).getIndentationStyle()).isEqualTo(IndentationStyle.TABS);
+	}
+
+	@Test
+	void resolveWhenConfigFileAddedLoadsConfig() throws Exception {
+		File directory = new File(this.temp, "project");
+		directory.mkdirs();
+		directory.setLastModified(0);
+		JavaFormatConfigResolver resolver = new JavaFormatConfigResolver(0);
+		assertThat(resolver.resolve(directory)).isSameAs(JavaFormatConfig.DEFAULT);
+		writeConfig(directory, "indentation-style=spaces");
+		assertThat(resolver.resolve(directory).getIndentationStyle()).isEqualTo(IndentationStyle.SPACES);
+	}
+
+	@Test
+	void resolveWhenWithinRecheckIntervalReturnsCachedConfig() throws Exception {
+		writeConfig(this.temp, "indentation-style=spaces");
+		JavaFormatConfigResolver resolver = new JavaFormatConfigResolver(60000);
+		assertThat(resolver.resolve(this.temp).getIndentationStyle()).isEqualTo(IndentationStyle.SPACES);
+		writeConfig(this.temp, "indentation-style=tabs");
+		assertThat(resolver.resolve(this.temp).getIndentationStyle()).isEqualTo(IndentationStyle.SPACES);
+		resolver.clear();
+		assertThat(resolver.resolve(this.temp).getIndentationStyle()).isEqualTo(IndentationStyle.TABS);
+	}
+
+	private File writeConfig(File directory, String content) throws IOException {
+		File configFile = new File(directory, ".springjavaformatconfig");
+		Files.write(configFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return configFile;
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.spring.javaformat.config.IndentationStyle;
+import io.spring.javaformat.config.JavaBaseline;
+import io.spring.javaformat.config.JavaFormatConfig;
+import io.spring.javaformat.formatter.FileFormatter;
+import io.spring.javaformat.formatter.Formatter;
+
+/**
+ * Benchmarks for {@link FileFormatter}. Each operation formats every source in the
+ * {@link SourceCorpus} from a file, including reading and decoding its content.
+ *
+ * @author Phillip Webb
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileFormatterBenchmark {
+
+	@Param({ "V8", "V17" })
+	JavaBaseline javaBaseline;
+
+	@Param({ "TABS", "SPACES" })
+	IndentationStyle indentationStyle;
+
+	@Param({ "false", "true" })
+	boolean formatted;
+
+	private FileFormatter fileFormatter;
+
+	private File directory;
+
+	private List<File> files;
+
+	@Setup
+	public void setup() throws IOException {
+		Formatter formatter = new Formatter(JavaFormatConfig.of(this.javaBaseline, this.indentationStyle));
+		this.fileFormatter = new FileFormatter(formatter);
+		SourceCorpus corpus = SourceCorpus.load();
+		this.directory = Files.createTempDirectory("spring-javaformat-benchmark").toFile();
+		this.files = (this.formatted ? corpus.formatted(formatter) : corpus).writeTo(this.directory);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		try (Stream<Path> paths = Files.walk(this.directory.toPath())) {
+			paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	@Benchmark
+	public void formatFile(Blackhole blackhole) {
+		for (File file : this.files) {
+			blackhole.consume(this.fileFormatter.formatFile(file, StandardCharsets.UTF_8));
+		}
+	}
+
+}
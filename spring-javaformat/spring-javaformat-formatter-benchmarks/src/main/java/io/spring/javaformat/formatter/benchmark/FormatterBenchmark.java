@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.spring.javaformat.config.IndentationStyle;
+import io.spring.javaformat.config.JavaBaseline;
+import io.spring.javaformat.config.JavaFormatConfig;
+import io.spring.javaformat.formatter.Formatter;
+
+/**
+ * Benchmarks for {@link Formatter}. Each operation formats every source in the
+ * {@link SourceCorpus}, either as a whole file or as a region covering the middle third
+ * of each file.
+ *
+ * @author Phillip Webb
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatterBenchmark {
+
+	@Param({ "V8", "V17" })
+	JavaBaseline javaBaseline;
+
+	@Param({ "TABS", "SPACES" })
+	IndentationStyle indentationStyle;
+
+	@Param({ "false", "true" })
+	boolean formatted;
+
+	private Formatter formatter;
+
+	private List<String> sources;
+
+	private int[] regionOffsets;
+
+	private int[] regionLengths;
+
+	@Setup
+	public void setup() throws IOException {
+		this.formatter = new Formatter(JavaFormatConfig.of(this.javaBaseline, this.indentationStyle));
+		SourceCorpus corpus = SourceCorpus.load();
+		this.sources = (this.formatted ? corpus.formatted(this.formatter) : corpus).getSources();
+		this.regionOffsets = new int[this.sources.size()];
+		this.regionLengths = new int[this.sources.size()];
+		for (int i = 0; i < this.sources.size(); i++) {
+			String source = this.sources.get(i);
+			int start = lineStart(source, source.length() / 3);
+			int end = lineStart(source, source.length() * 2 / 3);
+			this.regionOffsets[i] = start;
+			this.regionLengths[i] = end - start;
+		}
+	}
+
+	private int lineStart(String source, int index) {
+		return source.lastIndexOf('\n', index - 1) + 1;
+	}
+
+	@Benchmark
+	public void formatWholeFile(Blackhole blackhole) {
+		for (String source : this.sources) {
+			blackhole.consume(this.formatter.format(source));
+		}
+	}
+
+	@Benchmark
+	public void formatRegion(Blackhole blackhole) {
+		for (int i = 0; i < this.sources.size(); i++) {
+			blackhole.consume(this.formatter.format(this.sources.get(i), this.regionOffsets[i], this.regionLengths[i]));
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.spring.javaformat.formatter.Formatter;
+import io.spring.javaformat.formatter.StreamsFormatter;
+
+/**
+ * The corpus of source files used by the benchmarks. Sources are read from the
+ * {@code spring-javaformat-formatter-tests} module unless the {@value #SOURCES_PROPERTY}
+ * system property provides a different directory.
+ *
+ * @author Phillip Webb
+ */
+final class SourceCorpus {
+
+	static final String SOURCES_PROPERTY = "spring-javaformat.benchmark.sources";
+
+	private static final String DEFAULT_SOURCES = "../spring-javaformat-formatter-tests/src/test/resources/source";
+
+	private final List<String> sources;
+
+	private SourceCorpus(List<String> sources) {
+		this.sources = Collections.unmodifiableList(sources);
+	}
+
+	/**
+	 * Return the source content of each file in the corpus.
+	 * @return the sources
+	 */
+	List<String> getSources() {
+		return this.sources;
+	}
+
+	/**
+	 * Return a new corpus containing the sources formatted by the given formatter.
+	 * Sources that cannot be formatted are included unchanged.
+	 * @param formatter the formatter to use
+	 * @return a formatted corpus
+	 */
+	SourceCorpus formatted(Formatter formatter) {
+		StreamsFormatter streamsFormatter = new StreamsFormatter(formatter);
+		List<String> formatted = new ArrayList<>(this.sources.size());
+		for (String source : this.sources) {
+			try {
+				formatted.add(streamsFormatter.format(new StringReader(source)).getFormattedContent());
+			}
+			catch (Exception ex) {
+				formatted.add(source);
+			}
+		}
+		return new SourceCorpus(formatted);
+	}
+
+	/**
+	 * Write the sources in the corpus to files in the given directory.
+	 * @param directory the destination directory
+	 * @return the written files
+	 * @throws IOException on IO error
+	 */
+	List<File> writeTo(File directory) throws IOException {
+		List<File> files = new ArrayList<>(this.sources.size());
+		for (int i = 0; i < this.sources.size(); i++) {
+			File file = new File(directory, "Source" + i + ".java");
+			Files.write(file.toPath(), this.sources.get(i).getBytes(StandardCharsets.UTF_8));
+			files.add(file);
+		}
+		return files;
+	}
+
+	/**
+	 * Load the corpus.
+	 * @return the loaded corpus
+	 * @throws IOException on IO error
+	 */
+	static SourceCorpus load() throws IOException {
+		File directory = new File(System.getProperty(SOURCES_PROPERTY, DEFAULT_SOURCES));
+		File[] files = directory.listFiles((dir, name) -> name.endsWith(".txt") || name.endsWith(".java"));
+		if (files == null || files.length == 0) {
+			throw new IllegalStateException("No benchmark sources found in " + directory.getAbsolutePath()
+					+ ", set the '" + SOURCES_PROPERTY + "' system property to the source directory");
+		}
+		Arrays.sort(files);
+		List<String> sources = new ArrayList<>(files.length);
+		for (File file : files) {
+			sources.add(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+		}
+		return new SourceCorpus(sources);
+	}
+
+}
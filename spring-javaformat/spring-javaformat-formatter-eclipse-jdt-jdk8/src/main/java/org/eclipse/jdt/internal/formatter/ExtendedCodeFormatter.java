@@ -16,21 +16,23 @@
 
 package org.eclipse.jdt.internal.formatter;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import org.eclipse.jdt.core.compiler.InvalidInputException;
-import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.jdt.internal.compiler.parser.Scanner;
 import org.eclipse.jdt.internal.compiler.parser.TerminalTokens;
 import org.eclipse.jdt.internal.formatter.Preparator.Phase;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.text.edits.TextEdit;
 
 /**
  * Extended version of {@link DefaultCodeFormatter} that allows additional
- * {@link Preparator preparators} to be used.
+ * {@link Preparator preparators} to be used. Subclasses can also
+ * {@link #isRecordingStages() opt-in} to receive the time taken by each formatting
+ * {@link Stage}.
  *
  * @author Phillip Webb
  */
@@ -40,6 +42,16 @@ public class ExtendedCodeFormatter extends DefaultCodeFormatter {
 
 	private final List<Preparator> preparators = new ArrayList<>();
 
+	private boolean recording;
+
+	private long stageStart;
+
+	private Stage lastStage;
+
+	private int wrappableTokenCount;
+
+	private int wrappedTokenCount;
+
 	public ExtendedCodeFormatter() {
 		super();
 	}
@@ -60,8 +72,41 @@ public class ExtendedCodeFormatter extends DefaultCodeFormatter {
 		this.preparators.add(preparator);
 	}
 
+	@Override
+	public TextEdit format(int kind, String source, IRegion[] regions, int indentationLevel, String lineSeparator) {
+		if (!isRecordingStages()) {
+			return super.format(kind, source, regions, indentationLevel, lineSeparator);
+		}
+		long start = System.nanoTime();
+		this.recording = true;
+		this.stageStart = start;
+		this.lastStage = null;
+		this.wrappableTokenCount = 0;
+		this.wrappedTokenCount = 0;
+		try {
+			TextEdit edit = super.format(kind, source, regions, indentationLevel, lineSeparator);
+			if (this.lastStage == Stage.POST_WRAPPING) {
+				recordStage(Stage.EDITS);
+			}
+			else if (this.lastStage == Stage.TOKENIZE) {
+				recordStage(Stage.PARSE);
+			}
+			formatCompleted(System.nanoTime() - start, this.tokens.size(), this.wrappableTokenCount,
+					this.wrappedTokenCount);
+			return edit;
+		}
+		finally {
+			this.recording = false;
+		}
+	}
+
 	@Override
 	protected void tokenizeSource(int kind) {
+		tokenize(kind);
+		recordStage(Stage.TOKENIZE);
+	}
+
+	private void tokenize(int kind) {
 		if (useLegacyTokenize) {
 			legacyTokenizeSource(kind);
 			return;
@@ -99,29 +144,111 @@ public class ExtendedCodeFormatter extends DefaultCodeFormatter {
 
 	@Override
 	protected void prepareWraps(int kind) {
-		ASTNode astRoot = getField("astRoot", ASTNode.class);
-		TokenManager tokenManager = getField("tokenManager", TokenManager.class);
-		applyPreparators(Phase.PRE_WRAPPING, kind, astRoot, tokenManager);
+		recordStage(Stage.PARSE);
+		applyPreparators(Phase.PRE_WRAPPING, kind);
+		recordStage(Stage.PRE_WRAPPING);
 		super.prepareWraps(kind);
-		applyPreparators(Phase.POST_WRAPPING, kind, astRoot, tokenManager);
+		recordStage(Stage.WRAP);
+		if (this.recording) {
+			countWraps();
+		}
+		applyPreparators(Phase.POST_WRAPPING, kind);
+		recordStage(Stage.POST_WRAPPING);
 	}
 
-	private void applyPreparators(Phase preWrapping, int kind, ASTNode astRoot, TokenManager tokenManager) {
-		this.preparators.stream()
-			.filter((preparator) -> preparator.getPhase() == preWrapping)
-			.forEach((preparator) -> preparator.apply(kind, tokenManager, astRoot));
+	private void countWraps() {
+		for (int i = 0; i < this.tokenManager.size(); i++) {
+			Token token = this.tokenManager.get(i);
+			if (token.isWrappable()) {
+				this.wrappableTokenCount++;
+				this.wrappedTokenCount += (token.getLineBreaksBefore() > 0) ? 1 : 0;
+			}
+		}
 	}
 
-	@SuppressWarnings("unchecked")
-	private <T> T getField(String name, Class<T> type) {
-		try {
-			Field field = DefaultCodeFormatter.class.getDeclaredField(name);
-			field.setAccessible(true);
-			return (T) field.get(this);
+	private void recordStage(Stage stage) {
+		if (!this.recording) {
+			return;
 		}
-		catch (Exception ex) {
-			throw new IllegalStateException(ex);
+		long now = System.nanoTime();
+		stageCompleted(stage, now - this.stageStart);
+		this.stageStart = now;
+		this.lastStage = stage;
+	}
+
+	private void applyPreparators(Phase phase, int kind) {
+		for (Preparator preparator : this.preparators) {
+			if (preparator.getPhase() == phase) {
+				preparator.apply(kind, this.tokenManager, this.astRoot);
+			}
 		}
 	}
 
+	/**
+	 * Return if the time taken by each {@link Stage} should be recorded. When
+	 * {@code false} (the default) no timings are taken and neither
+	 * {@link #stageCompleted(Stage, long)} nor
+	 * {@link #formatCompleted(long, int, int, int)} is called.
+	 * @return if stages should be recorded
+	 */
+	protected boolean isRecordingStages() {
+		return false;
+	}
+
+	/**
+	 * Called when a formatting {@link Stage} completes while recording.
+	 * @param stage the completed stage
+	 * @param durationNanos the time taken by the stage in nanoseconds
+	 */
+	protected void stageCompleted(Stage stage, long durationNanos) {
+	}
+
+	/**
+	 * Called when a format operation completes while recording.
+	 * @param durationNanos the total time taken in nanoseconds
+	 * @param tokenCount the number of source tokens
+	 * @param wrappableTokenCount the number of tokens that could be wrapped
+	 * @param wrappedTokenCount the number of wrappable tokens that start a new line
+	 */
+	protected void formatCompleted(long durationNanos, int tokenCount, int wrappableTokenCount,
+			int wrappedTokenCount) {
+	}
+
+	/**
+	 * Formatting stages that can be recorded.
+	 */
+	public enum Stage {
+
+		/**
+		 * Tokenizing the source.
+		 */
+		TOKENIZE,
+
+		/**
+		 * Parsing the source and preparing spaces, line breaks and comments.
+		 */
+		PARSE,
+
+		/**
+		 * Applying {@link Phase#PRE_WRAPPING pre-wrapping} preparators.
+		 */
+		PRE_WRAPPING,
+
+		/**
+		 * Preparing and executing line wraps, including comment wrapping.
+		 */
+		WRAP,
+
+		/**
+		 * Applying {@link Phase#POST_WRAPPING post-wrapping} preparators.
+		 */
+		POST_WRAPPING,
+
+		/**
+		 * Creating the resulting text edits.
+		 */
+		EDITS
+
+	}
+
 }
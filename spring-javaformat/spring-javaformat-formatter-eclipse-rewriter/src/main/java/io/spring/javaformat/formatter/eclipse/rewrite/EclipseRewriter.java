@@ -58,6 +58,8 @@ public final class EclipseRewriter {
 		Set<String> updatedFields = new LinkedHashSet<String>();
 		updatedFields.add("sourceLevel");
 		updatedFields.add("tokens");
+		updatedFields.add("astRoot");
+		updatedFields.add("tokenManager");
 		UPDATED_FIELDS = Collections.unmodifiableSet(updatedFields);
 	}
 
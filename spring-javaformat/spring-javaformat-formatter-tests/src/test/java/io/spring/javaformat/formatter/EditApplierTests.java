@@ -0,0 +1,193 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.eclipse.text.edits.DeleteEdit;
+import org.eclipse.text.edits.InsertEdit;
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.RangeMarker;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link EditApplier}.
+ *
+ * @author Phillip Webb
+ */
+public class EditApplierTests {
+
+	@Test
+	void applyAppliesEdits() throws Exception {
+		MultiTextEdit edit = new MultiTextEdit();
+		edit.addChild(new ReplaceEdit(0, 3, "abc"));
+		edit.addChild(new InsertEdit(4, "x"));
+		edit.addChild(new DeleteEdit(5, 2));
+		assertThat(apply("123 45678", edit)).isEqualTo("abc x478");
+	}
+
+	@Test
+	void applyRemovesTrailingSpaces() throws Exception {
+		String content = "a  \nb \r\nc\t \rd \u2028e  ";
+		assertThat(apply(content, new MultiTextEdit())).isEqualTo("a\nb\r\nc\t\rd\u2028e");
+	}
+
+	@Test
+	void applyRemovesTrailingSpacesSpanningEdits() throws Exception {
+		MultiTextEdit edit = new MultiTextEdit();
+		edit.addChild(new ReplaceEdit(1, 1, "  "));
+		assertThat(apply("a-  \nb  c", edit)).isEqualTo("a\nb  c");
+	}
+
+	@Test
+	void applyKeepsLongRunsOfSpaces() throws Exception {
+		String spaces = new String(new char[100]).replace('\0', ' ');
+		assertThat(apply("a" + spaces + "b", new MultiTextEdit())).isEqualTo("a" + spaces + "b");
+	}
+
+	@Test
+	void applyWhenNestedEditsAppliesEdits() throws Exception {
+		MultiTextEdit edit = new MultiTextEdit();
+		MultiTextEdit nested = new MultiTextEdit();
+		nested.addChild(new ReplaceEdit(0, 1, "x "));
+		edit.addChild(nested);
+		assertThat(apply("a\nb", edit)).isEqualTo("x\nb");
+		assertThat(apply("a\nb", edit)).isEqualTo("x\nb");
+	}
+
+	@Test
+	void applyWhenUnsupportedEditUsesDocument() throws Exception {
+		MultiTextEdit edit = new MultiTextEdit();
+		edit.addChild(new RangeMarker(0, 1));
+		assertThat(apply("a \nb", edit)).isEqualTo("a\nb");
+	}
+
+	@Test
+	void isUnchangedWhenEditsMatchContentReturnsTrue() throws Exception {
+		MultiTextEdit edit = new MultiTextEdit();
+		edit.addChild(new ReplaceEdit(1, 1, "b  "));
+		assertThat(EditApplier.isUnchanged("ab\nc", edit)).isTrue();
+	}
+
+	@Test
+	void isUnchangedWhenEditsChangeContentReturnsFalse() throws Exception {
+		MultiTextEdit edit = new MultiTextEdit();
+		edit.addChild(new ReplaceEdit(1, 1, "x"));
+		assertThat(EditApplier.isUnchanged("ab\nc", edit)).isFalse();
+	}
+
+	@Test
+	void isUnchangedWhenOnlyTrailingSpacesRemovedReturnsFalse() throws Exception {
+		assertThat(EditApplier.isUnchanged("a \nb", new MultiTextEdit())).isFalse();
+	}
+
+	@Test
+	void getReplaceEditsReturnsMinimalEdits() throws Exception {
+		MultiTextEdit edit = new MultiTextEdit();
+		edit.addChild(new ReplaceEdit(0, 3, "1b3"));
+		edit.addChild(new ReplaceEdit(4, 2, "45"));
+		List<ReplaceEdit> edits = EditApplier.getReplaceEdits("123 45678", edit);
+		assertThat(edits).hasSize(1);
+		assertEdit(edits.get(0), 1, 1, "b");
+	}
+
+	@Test
+	void getReplaceEditsRemovesTrailingSpaces() throws Exception {
+		List<ReplaceEdit> edits = EditApplier.getReplaceEdits("a  \nb \r\nc", new MultiTextEdit());
+		assertThat(edits).hasSize(2);
+		assertEdit(edits.get(0), 1, 2, "");
+		assertEdit(edits.get(1), 5, 1, "");
+	}
+
+	@Test
+	void getReplaceEditsRemovesTrailingSpacesSpanningEdits() throws Exception {
+		MultiTextEdit edit = new MultiTextEdit();
+		edit.addChild(new ReplaceEdit(1, 1, "  "));
+		String content = "a-  \nb  c";
+		List<ReplaceEdit> edits = EditApplier.getReplaceEdits(content, edit);
+		assertThat(edits).hasSize(1);
+		assertEdit(edits.get(0), 1, 3, "");
+		assertThat(applyReplaceEdits(content, edits)).isEqualTo(apply(content, edit));
+	}
+
+	@Test
+	void getReplaceEditsKeepsSpacesFollowedByText() throws Exception {
+		MultiTextEdit edit = new MultiTextEdit();
+		edit.addChild(new InsertEdit(2, "  x"));
+		String content = "a  b \n";
+		List<ReplaceEdit> edits = EditApplier.getReplaceEdits(content, edit);
+		assertThat(applyReplaceEdits(content, edits)).isEqualTo("a   x b\n").isEqualTo(apply(content, edit));
+	}
+
+	@Test
+	void getReplaceEditsWhenUnsupportedEditUsesDocument() throws Exception {
+		MultiTextEdit edit = new MultiTextEdit();
+		edit.addChild(new RangeMarker(0, 1));
+		List<ReplaceEdit> edits = EditApplier.getReplaceEdits("a \nb", edit);
+		assertThat(edits).hasSize(1);
+		assertEdit(edits.get(0), 1, 1, "");
+	}
+
+	@Test
+	void getReplaceEditsMatchesApplyForFormattedSources() throws Exception {
+		File[] sources = new File("src/test/resources/source").listFiles((dir, name) -> name.endsWith(".txt"));
+		assertThat(sources).isNotEmpty();
+		Formatter formatter = new Formatter();
+		for (File source : sources) {
+			String content = new String(Files.readAllBytes(source.toPath()), StandardCharsets.UTF_8);
+			TextEdit edit = formatter.format(content);
+			if (edit != null) {
+				List<ReplaceEdit> edits = EditApplier.getReplaceEdits(content, edit);
+				int previousEnd = 0;
+				for (ReplaceEdit replaceEdit : edits) {
+					assertThat(replaceEdit.getOffset()).as(source.getName()).isGreaterThanOrEqualTo(previousEnd);
+					previousEnd = replaceEdit.getExclusiveEnd();
+				}
+				assertThat(applyReplaceEdits(content, edits)).as(source.getName()).isEqualTo(apply(content, edit));
+			}
+		}
+	}
+
+	private void assertEdit(ReplaceEdit edit, int offset, int length, String text) {
+		assertThat(edit.getOffset()).isEqualTo(offset);
+		assertThat(edit.getLength()).isEqualTo(length);
+		assertThat(edit.getText()).isEqualTo(text);
+	}
+
+	private String applyReplaceEdits(String content, List<ReplaceEdit> edits) {
+		StringBuilder result = new StringBuilder(content);
+		for (int i = edits.size() - 1; i >= 0; i--) {
+			ReplaceEdit edit = edits.get(i);
+			result.replace(edit.getOffset(), edit.getExclusiveEnd(), edit.getText());
+		}
+		return result.toString();
+	}
+
+	private String apply(String content, TextEdit edit) throws Exception {
+		StringBuilder result = new StringBuilder();
+		EditApplier.apply(content, edit, result);
+		return result.toString();
+	}
+
+}
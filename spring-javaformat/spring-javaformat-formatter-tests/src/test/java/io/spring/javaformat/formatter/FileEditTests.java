@@ -22,6 +22,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
 
 import org.eclipse.text.edits.TextEdit;
 import org.junit.jupiter.api.BeforeEach;
@@ -89,6 +90,36 @@ public class FileEditTests {
 		assertThat(read(this.source)).isEqualTo(expected);
 	}
 
+	@Test
+	void saveIfChangedWhenChangedSavesContent() throws Exception {
+		String expected = read(this.expected);
+		assertThat(this.fileEdit.saveIfChanged()).isTrue();
+		assertThat(read(this.source)).isEqualTo(expected);
+		assertThat(this.temp.listFiles()).hasSize(2);
+	}
+
+	@Test
+	void saveIfChangedWhenUnchangedDoesNotWriteFile() throws Exception {
+		String content = read(this.expected);
+		FileTime lastModified = FileTime.fromMillis(1000);
+		Files.setLastModifiedTime(this.expected.toPath(), lastModified);
+		FileEdit fileEdit = new FileEdit(this.expected, UTF_8, content, new Formatter().format(content));
+		assertThat(fileEdit.saveIfChanged()).isFalse();
+		assertThat(Files.getLastModifiedTime(this.expected.toPath())).isEqualTo(lastModified);
+	}
+
+	@Test
+	void isChangedWhenChangedReturnsTrue() throws Exception {
+		assertThat(this.fileEdit.isChanged()).isTrue();
+	}
+
+	@Test
+	void isChangedWhenUnchangedReturnsFalse() throws Exception {
+		String content = read(this.expected);
+		FileEdit fileEdit = new FileEdit(this.expected, UTF_8, content, new Formatter().format(content));
+		assertThat(fileEdit.isChanged()).isFalse();
+	}
+
 	@Test
 	void getFormattedContentReturnsFormattedContent() throws Exception {
 		String expected = read(this.expected);
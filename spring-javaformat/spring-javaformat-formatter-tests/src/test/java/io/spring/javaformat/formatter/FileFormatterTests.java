@@ -18,12 +18,23 @@ package io.spring.javaformat.formatter;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import io.spring.javaformat.config.JavaFormatConfig;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 /**
  * Tests for {@link FileFormatter}.
@@ -72,8 +83,183 @@ public class FileFormatterTests extends AbstractFormatterTests {
 		assertThat(formattedContent).isEqualTo(expected);
 	}
 
+	@Test
+	void formatFilesInParallelReturnsEditsInOrder() throws Exception {
+		List<Item> items = new ArrayList<>();
+		for (Item item : items()) {
+			if (item.getConfig().getJavaBaseline() == JavaFormatConfig.DEFAULT.getJavaBaseline()
+					&& item.getConfig().getIndentationStyle() == JavaFormatConfig.DEFAULT.getIndentationStyle()) {
+				items.add(item);
+			}
+		}
+		List<File> sources = items.stream().map(Item::getSource).collect(Collectors.toList());
+		List<FileEdit> edits;
+		try (FileFormatter formatter = new FileFormatter(JavaFormatConfig.DEFAULT, 4)) {
+			edits = formatter.formatFiles(sources, StandardCharsets.UTF_8).collect(Collectors.toList());
+		}
+		assertThat(edits).extracting(FileEdit::getFile).containsExactlyElementsOf(sources);
+		for (int i = 0; i < items.size(); i++) {
+			assertThat(edits.get(i).getFormattedContent()).isEqualTo(read(items.get(i).getExpected()));
+		}
+	}
+
+	@ParameterizedTest
+	@MethodSource("items")
+	void isFormattedWhenExpectedReturnsTrue(Item item) throws Exception {
+		FileFormatter formatter = new FileFormatter(item.getConfig());
+		assertThat(formatter.isFormatted(item.getExpected(), StandardCharsets.UTF_8)).isTrue();
+	}
+
+	@ParameterizedTest
+	@MethodSource("items")
+	void isFormattedMatchesFormatFile(Item item) throws Exception {
+		FileFormatter formatter = new FileFormatter(item.getConfig());
+		File source = item.getSource();
+		boolean unchanged = formatter.formatFile(source, StandardCharsets.UTF_8)
+			.getFormattedContent()
+			.equals(read(source));
+		assertThat(formatter.isFormatted(source, StandardCharsets.UTF_8)).isEqualTo(unchanged);
+	}
+
+	@Test
+	void checkFilesReturnsUnformattedFilesInOrder() throws Exception {
+		List<File> files = new ArrayList<>();
+		List<File> unformatted = new ArrayList<>();
+		for (Item item : items()) {
+			if (item.getConfig().getJavaBaseline() == JavaFormatConfig.DEFAULT.getJavaBaseline()
+					&& item.getConfig().getIndentationStyle() == JavaFormatConfig.DEFAULT.getIndentationStyle()) {
+				files.add(item.getSource());
+				files.add(item.getExpected());
+				if (!read(item.getSource()).equals(read(item.getExpected()))) {
+					unformatted.add(item.getSource());
+				}
+			}
+		}
+		List<File> checked;
+		try (FileFormatter formatter = new FileFormatter(JavaFormatConfig.DEFAULT, 4)) {
+			checked = formatter.checkFiles(files, StandardCharsets.UTF_8).collect(Collectors.toList());
+		}
+		assertThat(checked).containsExactlyElementsOf(unformatted);
+	}
+
+	@Test
+	void closeStopsWorkerThreads() throws Exception {
+		List<File> sources = Arrays.stream(items()).map(Item::getSource).limit(8).collect(Collectors.toList());
+		Set<Thread> workers = ConcurrentHashMap.newKeySet();
+		FileFormatter formatter = new FileFormatter(() -> {
+			workers.add(Thread.currentThread());
+			return new Formatter();
+		}, 4);
+		assertThat(formatter.formatFiles(sources, StandardCharsets.UTF_8).count()).isEqualTo(sources.size());
+		formatter.close();
+		assertThat(workers).isNotEmpty();
+		for (Thread worker : workers) {
+			worker.join(TimeUnit.SECONDS.toMillis(5));
+			assertThat(worker.isAlive()).isFalse();
+		}
+	}
+
+	@Test
+	void formatFilesAfterCloseUsesNewWorkerThreads() throws Exception {
+		List<File> sources = Arrays.stream(items()).map(Item::getSource).limit(8).collect(Collectors.toList());
+		try (FileFormatter formatter = new FileFormatter(JavaFormatConfig.DEFAULT, 4)) {
+			assertThat(formatter.formatFiles(sources, StandardCharsets.UTF_8).count()).isEqualTo(sources.size());
+			formatter.close();
+			assertThat(formatter.formatFiles(sources, StandardCharsets.UTF_8).count()).isEqualTo(sources.size());
+		}
+	}
+
+	@Test
+	void isFormattedWhenFormattedAddsToCache() throws Exception {
+		TestFormatCache cache = new TestFormatCache();
+		FileFormatter formatter = new FileFormatter(JavaFormatConfig.DEFAULT, 1, cache);
+		File expected = new File("src/test/resources/expected/javadoc-top.txt");
+		assertThat(formatter.isFormatted(expected, StandardCharsets.UTF_8)).isTrue();
+		assertThat(formatter.isFormatted(expected, StandardCharsets.UTF_8)).isTrue();
+		assertThat(cache.keys).hasSize(1);
+		assertThat(cache.hits).isOne();
+	}
+
+	@Test
+	void formatFileWhenFormattedAddsToCache() throws Exception {
+		TestFormatCache cache = new TestFormatCache();
+		FileFormatter formatter = new FileFormatter(JavaFormatConfig.DEFAULT, 1, cache);
+		File expected = new File("src/test/resources/expected/javadoc-top.txt");
+		assertThat(formatter.formatFile(expected, StandardCharsets.UTF_8).hasEdits()).isFalse();
+		assertThat(cache.keys).hasSize(1);
+		assertThat(formatter.formatFile(expected, StandardCharsets.UTF_8).hasEdits()).isFalse();
+		assertThat(cache.keys).hasSize(1);
+		assertThat(cache.hits).isOne();
+	}
+
+	@Test
+	void formatFileWhenNotFormattedDoesNotAddToCache() throws Exception {
+		TestFormatCache cache = new TestFormatCache();
+		FileFormatter formatter = new FileFormatter(JavaFormatConfig.DEFAULT, 1, cache);
+		File source = new File("src/test/resources/source/javadoc-top.txt");
+		assertThat(formatter.formatFile(source, StandardCharsets.UTF_8).hasEdits()).isTrue();
+		assertThat(cache.keys).isEmpty();
+	}
+
+	@Test
+	void formatFileWhenCachedDoesNotFormat() throws Exception {
+		FormatCache cache = new FormatCache() {
+
+			@Override
+			public boolean contains(String key) {
+				return true;
+			}
+
+			@Override
+			public void add(String key) {
+			}
+
+		};
+		FileFormatter formatter = new FileFormatter(JavaFormatConfig.DEFAULT, 1, cache);
+		File source = new File("src/test/resources/source/javadoc-top.txt");
+		FileEdit edit = formatter.formatFile(source, StandardCharsets.UTF_8);
+		assertThat(edit.hasEdits()).isFalse();
+	}
+
+	@Test
+	void formatFileWhenLineSeparatorChangesDoesNotUseCache() throws Exception {
+		TestFormatCache cache = new TestFormatCache();
+		FileFormatter formatter = new FileFormatter(JavaFormatConfig.DEFAULT, 1, cache);
+		File expected = new File("src/test/resources/expected/javadoc-top.txt");
+		formatter.formatFile(expected, StandardCharsets.UTF_8, "\n");
+		formatter.formatFile(expected, StandardCharsets.UTF_8, "\r\n");
+		assertThat(cache.hits).isZero();
+	}
+
+	@Test
+	void createWhenCacheWithoutJavaFormatConfigThrowsException() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> new FileFormatter(Formatter::new, 1, null, new TestFormatCache()))
+			.withMessage("JavaFormatConfig must not be null when using a cache");
+	}
+
 	static Item[] items() {
 		return items(null);
 	}
 
+	static class TestFormatCache implements FormatCache {
+
+		private final Set<String> keys = new HashSet<>();
+
+		private int hits;
+
+		@Override
+		public boolean contains(String key) {
+			boolean contains = this.keys.contains(key);
+			this.hits += (contains) ? 1 : 0;
+			return contains;
+		}
+
+		@Override
+		public void add(String key) {
+			this.keys.add(key);
+		}
+
+	}
+
 }
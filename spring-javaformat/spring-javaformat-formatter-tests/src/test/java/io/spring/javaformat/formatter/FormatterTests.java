@@ -16,12 +16,22 @@
 
 package io.spring.javaformat.formatter;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.text.edits.TextEdit;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import io.spring.javaformat.config.IndentationStyle;
+import io.spring.javaformat.config.JavaBaseline;
 import io.spring.javaformat.config.JavaFormatConfig;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -48,6 +58,67 @@ public class FormatterTests extends AbstractFormatterTests {
 		}
 	}
 
+	@ParameterizedTest
+	@EnumSource(JavaBaseline.class)
+	void formatWithListenerReportsMetrics(JavaBaseline javaBaseline) throws Exception {
+		String source = "public class Test {public void test(String first, String second){first.equals(second);}}";
+		Formatter formatter = new Formatter(JavaFormatConfig.of(javaBaseline, IndentationStyle.TABS));
+		String expected = apply(source, formatter.format(source));
+		List<FormatterMetrics> metrics = new ArrayList<>();
+		formatter.setListener(metrics::add);
+		assertThat(apply(source, formatter.format(source))).isEqualTo(expected);
+		assertThat(metrics).hasSize(1);
+		FormatterMetrics formatted = metrics.get(0);
+		Duration phases = Duration.ZERO;
+		for (FormatterPhase phase : FormatterPhase.values()) {
+			assertThat(formatted.getDuration(phase)).isGreaterThanOrEqualTo(Duration.ZERO);
+			phases = phases.plus(formatted.getDuration(phase));
+		}
+		assertThat(formatted.getDuration(FormatterPhase.WRAP).toNanos()).isPositive();
+		assertThat(phases).isLessThanOrEqualTo(formatted.getTotalDuration());
+		assertThat(formatted.getTokenCount()).isEqualTo(countTokens(source));
+		assertThat(formatted.getWrappableTokenCount()).isPositive()
+			.isGreaterThanOrEqualTo(formatted.getWrappedTokenCount());
+	}
+
+	@Test
+	void formatRegionWithListenerReportsMetrics() {
+		String source = "public class Test {\n\n\tpublic void a(){}\n\n\tpublic void b(){}\n\n}\n";
+		Formatter formatter = new Formatter();
+		List<FormatterMetrics> metrics = new ArrayList<>();
+		formatter.setListener(metrics::add);
+		formatter.format(source, source.indexOf("\tpublic void b"), 18);
+		assertThat(metrics).hasSize(1);
+		assertThat(metrics.get(0).getTokenCount()).isPositive();
+	}
+
+	@Test
+	void formatWithPooledFormatterAndListenerReportsMetrics() {
+		PooledFormatter formatter = new PooledFormatter(JavaFormatConfig.DEFAULT, 1, 60000);
+		List<FormatterMetrics> metrics = new ArrayList<>();
+		formatter.setListener(metrics::add);
+		formatter.format("public class Test {}");
+		formatter.setListener(null);
+		formatter.format("public class Test {}");
+		assertThat(metrics).hasSize(1);
+	}
+
+	private int countTokens(String source) {
+		// The source only contains keywords, identifiers and single character separators
+		Matcher matcher = Pattern.compile("\\w+|[^\\w\\s]").matcher(source);
+		int count = 0;
+		while (matcher.find()) {
+			count++;
+		}
+		return count;
+	}
+
+	private String apply(String source, TextEdit textEdit) throws Exception {
+		IDocument document = new Document(source);
+		textEdit.apply(document);
+		return document.get();
+	}
+
 	private String format(JavaFormatConfig config, String sourceContent) throws Exception {
 		IDocument document = new Document(sourceContent);
 		TextEdit textEdit = new Formatter(config).format(sourceContent);
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter;
+
+import java.io.File;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PersistentFormatCache}.
+ *
+ * @author agent (agent@local)
+ */
+public class PersistentFormatCacheTests {
+
+	@TempDir
+	public File temp;
+
+	@Test
+	void containsWhenEmptyReturnsFalse() {
+		PersistentFormatCache cache = new PersistentFormatCache(new File(this.temp, "format.cache"));
+		assertThat(cache.contains("a")).isFalse();
+	}
+
+	@Test
+	void saveAndLoad() throws Exception {
+		File file = new File(this.temp, "cache/format.cache");
+		PersistentFormatCache cache = new PersistentFormatCache(file);
+		cache.add("a");
+		cache.add("b");
+		cache.save();
+		PersistentFormatCache loaded = new PersistentFormatCache(file);
+		assertThat(loaded.contains("a")).isTrue();
+		assertThat(loaded.contains("b")).isTrue();
+		assertThat(loaded.contains("c")).isFalse();
+	}
+
+	@Test
+	void saveWhenNotModifiedDoesNotWriteFile() throws Exception {
+		File file = new File(this.temp, "format.cache");
+		new PersistentFormatCache(file).save();
+		assertThat(file).doesNotExist();
+	}
+
+}
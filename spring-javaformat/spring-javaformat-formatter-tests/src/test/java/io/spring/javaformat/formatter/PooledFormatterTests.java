@@ -0,0 +1,217 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.text.edits.TextEdit;
+import org.junit.jupiter.api.Test;
+
+import io.spring.javaformat.config.JavaFormatConfig;
+import io.spring.javaformat.formatter.eclipse.EclipseCodeFormatter;
+import io.spring.javaformat.formatter.eclipse.FormatRecorder;
+import io.spring.javaformat.formatter.eclipse.PooledEclipseCodeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link PooledFormatter}.
+ *
+ * @author agent (agent@local)
+ */
+public class PooledFormatterTests extends AbstractFormatterTests {
+
+	@Test
+	void formatFromConcurrentThreads() throws Exception {
+		PooledFormatter formatter = new PooledFormatter(JavaFormatConfig.DEFAULT, 4, 60000);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Item> items = new ArrayList<>();
+			List<Future<String>> results = new ArrayList<>();
+			for (Item item : items("FormatterTests-expected")) {
+				if (item.getConfig().equals(JavaFormatConfig.DEFAULT)) {
+					String source = read(item.getSource());
+					items.add(item);
+					results.add(executor.submit(() -> format(formatter, source)));
+				}
+			}
+			for (int i = 0; i < items.size(); i++) {
+				assertThat(results.get(i).get()).isEqualTo(read(items.get(i).getExpected()));
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void sharesPoolForSameConfig() {
+		PooledFormatter formatter1 = new PooledFormatter();
+		PooledFormatter formatter2 = new PooledFormatter(JavaFormatConfig.DEFAULT);
+		assertThat(formatter1.getDelegate()).isSameAs(formatter2.getDelegate());
+		formatter1.createIndentationString(1);
+		assertThat(((PooledEclipseCodeFormatter) formatter2.getDelegate()).getIdleCount()).isPositive();
+	}
+
+	@Test
+	void doesNotSharePoolWhenMaxSizeIsSpecified() {
+		PooledFormatter formatter1 = new PooledFormatter(JavaFormatConfig.DEFAULT);
+		PooledFormatter formatter2 = new PooledFormatter(JavaFormatConfig.DEFAULT, 2, 60000);
+		assertThat(formatter1.getDelegate()).isNotSameAs(formatter2.getDelegate());
+	}
+
+	@Test
+	void borrowedDelegateIsReturnedToPool() {
+		PooledEclipseCodeFormatter pool = new PooledEclipseCodeFormatter(
+				() -> Formatter.createDelegate(JavaFormatConfig.DEFAULT), 2, 60000);
+		assertThat(pool.getIdleCount()).isZero();
+		pool.createIndentationString(1);
+		assertThat(pool.getIdleCount()).isOne();
+		pool.createIndentationString(1);
+		assertThat(pool.getIdleCount()).isOne();
+	}
+
+	@Test
+	void idleDelegateIsEvicted() {
+		PooledEclipseCodeFormatter pool = new PooledEclipseCodeFormatter(
+				() -> Formatter.createDelegate(JavaFormatConfig.DEFAULT), 2, 0);
+		pool.createIndentationString(1);
+		assertThat(pool.getIdleCount()).isZero();
+	}
+
+	@Test
+	void createWhenMaxSizeIsZeroThrowsException() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new PooledFormatter(JavaFormatConfig.DEFAULT, 0, 0))
+			.withMessage("MaxSize must be positive");
+	}
+
+	@Test
+	void setOptionsWhenDelegateIsBorrowedAppliesOptionsToAllDelegates() throws Exception {
+		CountDownLatch borrowed = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<TestCodeFormatter> delegates = new CopyOnWriteArrayList<>();
+		PooledEclipseCodeFormatter pool = new PooledEclipseCodeFormatter(() -> {
+			TestCodeFormatter delegate = new TestCodeFormatter(borrowed, release);
+			delegates.add(delegate);
+			return delegate;
+		}, 2, 60000);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<TextEdit> borrowedResult = executor.submit(() -> pool.format(0, "", 0, 0, 0, "\n"));
+			borrowed.await();
+			pool.setOptions(Collections.singletonMap("indent", "custom"));
+			assertThat(pool.createIndentationString(1)).isEqualTo("custom");
+			release.countDown();
+			borrowedResult.get();
+			assertThat(pool.createIndentationString(1)).isEqualTo("custom");
+			assertThat(delegates).hasSize(2).allMatch((delegate) -> "custom".equals(delegate.indent));
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void setOptionsWhenSharedPoolThrowsException() {
+		PooledFormatter formatter = new PooledFormatter(JavaFormatConfig.DEFAULT);
+		assertThatExceptionOfType(UnsupportedOperationException.class)
+			.isThrownBy(() -> formatter.setOptions(Collections.emptyMap()))
+			.withMessage("Options cannot be set on a formatter that uses a shared pool");
+	}
+
+	@Test
+	void setOptionsWhenDedicatedPoolSetsOptions() {
+		PooledFormatter formatter = new PooledFormatter(JavaFormatConfig.DEFAULT, 2, 60000);
+		formatter.setOptions(Collections.emptyMap());
+		assertThat(formatter.createIndentationString(1)).isEqualTo("\t");
+	}
+
+	private String format(Formatter formatter, String source) throws Exception {
+		IDocument document = new Document(source);
+		TextEdit textEdit = formatter.format(source);
+		textEdit.apply(document);
+		return document.get();
+	}
+
+	/**
+	 * {@link EclipseCodeFormatter} that blocks on format calls and reports the indent
+	 * option that was last set.
+	 */
+	private static final class TestCodeFormatter implements EclipseCodeFormatter {
+
+		private final CountDownLatch borrowed;
+
+		private final CountDownLatch release;
+
+		private volatile String indent = "default";
+
+		TestCodeFormatter(CountDownLatch borrowed, CountDownLatch release) {
+			this.borrowed = borrowed;
+			this.release = release;
+		}
+
+		@Override
+		public TextEdit format(int kind, String source, int offset, int length, int indentationLevel,
+				String lineSeparator) {
+			this.borrowed.countDown();
+			try {
+				this.release.await();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return null;
+		}
+
+		@Override
+		public TextEdit format(int kind, String source, IRegion[] regions, int indentationLevel,
+				String lineSeparator) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public TextEdit format(int kind, String source, IRegion[] regions, int indentationLevel, String lineSeparator,
+				FormatRecorder recorder) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public String createIndentationString(int indentationLevel) {
+			return this.indent;
+		}
+
+		@Override
+		public void setOptions(Map<String, String> options) {
+			this.indent = options.get("indent");
+		}
+
+	}
+
+}
@@ -20,12 +20,15 @@ import java.io.FileInputStream;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 /**
  * Tests for {@link StreamsFormatter}.
@@ -61,6 +64,25 @@ public class StreamsFormatterTests extends AbstractFormatterTests {
 		}
 	}
 
+	@Test
+	void formatReaderWithRegionsFormatsOnlyRegions() throws Exception {
+		String first = "public void a(){int x=1;}";
+		String second = "public void b(){int y=2;}";
+		String content = "public class Test {\n\n\t" + first + "\n\n\t" + second + "\n\n}\n";
+		int offset = content.indexOf(second);
+		StreamsEdit edit = new StreamsFormatter().format(new StringReader(content), null, new int[] { offset },
+				new int[] { second.length() });
+		String formatted = edit.getFormattedContent();
+		assertThat(formatted).contains(first).doesNotContain(second).contains("int y = 2;");
+	}
+
+	@Test
+	void formatReaderWithMismatchedRegionsThrowsException() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> new StreamsFormatter().format(new StringReader(""), null, new int[1], new int[2]))
+			.withMessage("Offsets and lengths must have the same number of elements");
+	}
+
 	static Item[] items() {
 		return items(null);
 	}
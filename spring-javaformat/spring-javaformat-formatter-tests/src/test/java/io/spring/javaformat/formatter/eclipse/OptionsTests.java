@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter.eclipse;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.spring.javaformat.config.IndentationStyle;
+import io.spring.javaformat.config.JavaBaseline;
+import io.spring.javaformat.config.JavaFormatConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link Options}.
+ *
+ * @author Phillip Webb
+ */
+class OptionsTests {
+
+	private static final String PREFIX = "io.spring.javaformat.eclipse.jdt.jdk17";
+
+	@Test
+	void loadReturnsPrefixedOptions() {
+		Map<String, String> options = new Options(PREFIX).load(JavaFormatConfig.DEFAULT);
+		assertThat(options).isNotEmpty();
+		assertThat(options.keySet()).allMatch((key) -> key.startsWith(PREFIX + "."));
+		assertThat(options).containsEntry(PREFIX + ".core.formatter.tabulation.char", "tab");
+	}
+
+	@Test
+	void loadWhenSpacesAppliesIndentationStyle() {
+		Map<String, String> options = new Options(PREFIX)
+			.load(JavaFormatConfig.of(JavaBaseline.V17, IndentationStyle.SPACES));
+		assertThat(options).containsEntry(PREFIX + ".core.formatter.tabulation.char", "space");
+	}
+
+	@Test
+	void loadReturnsImmutableOptions() {
+		Map<String, String> options = new Options(PREFIX).load(JavaFormatConfig.DEFAULT);
+		assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> options.put("test", "test"));
+	}
+
+	@Test
+	void loadWhenSameIndentationStyleReturnsCachedOptions() {
+		Map<String, String> options = new Options(PREFIX)
+			.load(JavaFormatConfig.of(JavaBaseline.V17, IndentationStyle.TABS));
+		assertThat(new Options(PREFIX).load(JavaFormatConfig.of(JavaBaseline.V8, IndentationStyle.TABS)))
+			.isSameAs(options);
+		assertThat(new Options(PREFIX).load(JavaFormatConfig.of(JavaBaseline.V17, IndentationStyle.SPACES)))
+			.isNotSameAs(options);
+		assertThat(new Options("io.spring.javaformat.eclipse.jdt.jdk8").load(JavaFormatConfig.DEFAULT))
+			.isNotSameAs(options);
+	}
+
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter.jdk8.eclipse;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.ASTNode;
+import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.ASTParser;
+import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.ASTVisitor;
+import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.Block;
+import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.CompilationUnit;
+import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.FieldDeclaration;
+import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.MethodDeclaration;
+import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.TypeDeclaration;
+import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.VariableDeclarationFragment;
+import io.spring.javaformat.eclipse.jdt.jdk8.core.formatter.CodeFormatter;
+import io.spring.javaformat.eclipse.jdt.jdk8.internal.formatter.Preparator.Phase;
+import io.spring.javaformat.eclipse.jdt.jdk8.internal.formatter.TokenManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link CompositeVisitor} and {@link CompositeVisitorPreparator}.
+ *
+ * @author agent (agent@local)
+ */
+class CompositeVisitorTests {
+
+	private static final int JLS8 = 8;
+
+	private static final String SOURCE = "class Test { Runnable r = new Runnable() { public void run() {} }; void m() {} }";
+
+	@Test
+	void visitWhenDelegatesVisitChildrenCallsBothDelegates() {
+		RecordingVisitor first = new RecordingVisitor(false);
+		RecordingVisitor second = new RecordingVisitor(false);
+		parse().accept(new CompositeVisitor(first, second));
+		assertThat(first.events).containsExactly("visit Test", "visit r", "visit run", "endVisit run", "endVisit r",
+				"visit m", "endVisit m", "endVisit Test");
+		assertThat(second.events).isEqualTo(first.events);
+	}
+
+	@Test
+	void visitWhenDelegateSkipsChildrenOnlySkipsThatDelegate() {
+		RecordingVisitor first = new RecordingVisitor(true);
+		RecordingVisitor second = new RecordingVisitor(false);
+		parse().accept(new CompositeVisitor(first, second));
+		assertThat(first.events).containsExactly("visit Test", "visit r", "endVisit r", "visit m", "endVisit m",
+				"endVisit Test");
+		assertThat(second.events).containsExactly("visit Test", "visit r", "visit run", "endVisit run", "endVisit r",
+				"visit m", "endVisit m", "endVisit Test");
+	}
+
+	@Test
+	void visitWhenBothDelegatesSkipChildrenReturnsFalse() {
+		RecordingVisitor first = new RecordingVisitor(true);
+		RecordingVisitor second = new RecordingVisitor(true);
+		FieldDeclaration field = (FieldDeclaration) parse().bodyDeclarations().get(0);
+		CompositeVisitor visitor = new CompositeVisitor(first, second);
+		assertThat(visitor.visit(field)).isFalse();
+		visitor.endVisit(field);
+		visitor.postVisit(field);
+		assertThat(first.events).containsExactly("visit r", "endVisit r");
+		assertThat(second.events).containsExactly("visit r", "endVisit r");
+	}
+
+	@Test
+	void delegatesOnlyOverrideForwardedMethods() {
+		assertThat(getUnforwardedMethods(new CodeLineBreakPreparator())).isEmpty();
+		assertThat(getUnforwardedMethods(new JSpecifyPreparator())).isEmpty();
+	}
+
+	@Test
+	void getUnforwardedMethodsWhenDelegateOverridesOtherMethodsReturnsMethods() {
+		VisitorPreparator preparator = new TestVisitorPreparator(Phase.PRE_WRAPPING, new UnforwardedVisitor());
+		assertThat(getUnforwardedMethods(preparator)).containsExactlyInAnyOrder("visit(Block)", "endVisit(Block)",
+				"postVisit(ASTNode)");
+	}
+
+	@Test
+	void createWhenPhasesDifferThrowsException() {
+		VisitorPreparator preWrapping = new TestVisitorPreparator(Phase.PRE_WRAPPING);
+		VisitorPreparator postWrapping = new TestVisitorPreparator(Phase.POST_WRAPPING);
+		assertThatIllegalArgumentException().isThrownBy(() -> new CompositeVisitorPreparator(preWrapping, postWrapping))
+			.withMessage("Preparators must use the same phase");
+	}
+
+	private List<String> getUnforwardedMethods(VisitorPreparator preparator) {
+		List<String> unforwarded = new ArrayList<>();
+		Class<?> type = preparator.getVisitor(CodeFormatter.K_COMPILATION_UNIT, null).getClass();
+		while (type != ASTVisitor.class) {
+			for (Method method : type.getDeclaredMethods()) {
+				if (isVisitorMethod(method) && !isForwarded(method)) {
+					unforwarded.add(method.getName() + "(" + method.getParameterTypes()[0].getSimpleName() + ")");
+				}
+			}
+			type = type.getSuperclass();
+		}
+		return unforwarded;
+	}
+
+	private boolean isVisitorMethod(Method method) {
+		return !method.isSynthetic() && method.getParameterCount() == 1 && Arrays.stream(ASTVisitor.class.getMethods())
+			.anyMatch((candidate) -> candidate.getName().equals(method.getName())
+					&& Arrays.equals(candidate.getParameterTypes(), method.getParameterTypes()));
+	}
+
+	private boolean isForwarded(Method method) {
+		if (!method.getName().equals("visit") && !method.getName().equals("endVisit")) {
+			return false;
+		}
+		try {
+			CompositeVisitor.class.getDeclaredMethod(method.getName(), method.getParameterTypes());
+			return true;
+		}
+		catch (NoSuchMethodException ex) {
+			return false;
+		}
+	}
+
+	private TypeDeclaration parse() {
+		ASTParser parser = ASTParser.newParser(JLS8);
+		parser.setSource(SOURCE.toCharArray());
+		CompilationUnit compilationUnit = (CompilationUnit) parser.createAST(null);
+		return (TypeDeclaration) compilationUnit.types().get(0);
+	}
+
+	private static class RecordingVisitor extends ASTVisitor {
+
+		private final boolean skipFieldChildren;
+
+		private final List<String> events = new ArrayList<>();
+
+		RecordingVisitor(boolean skipFieldChildren) {
+			this.skipFieldChildren = skipFieldChildren;
+		}
+
+		@Override
+		public boolean visit(TypeDeclaration node) {
+			this.events.add("visit " + node.getName());
+			return true;
+		}
+
+		@Override
+		public void endVisit(TypeDeclaration node) {
+			this.events.add("endVisit " + node.getName());
+		}
+
+		@Override
+		public boolean visit(FieldDeclaration node) {
+			this.events.add("visit " + name(node));
+			return !this.skipFieldChildren;
+		}
+
+		@Override
+		public void endVisit(FieldDeclaration node) {
+			this.events.add("endVisit " + name(node));
+		}
+
+		@Override
+		public boolean visit(MethodDeclaration node) {
+			this.events.add("visit " + node.getName());
+			return true;
+		}
+
+		@Override
+		public void endVisit(MethodDeclaration node) {
+			this.events.add("endVisit " + node.getName());
+		}
+
+		private String name(FieldDeclaration node) {
+			return String.valueOf(((VariableDeclarationFragment) node.fragments().get(0)).getName());
+		}
+
+	}
+
+	private static class UnforwardedVisitor extends ASTVisitor {
+
+		@Override
+		public boolean visit(TypeDeclaration node) {
+			return true;
+		}
+
+		@Override
+		public boolean visit(Block node) {
+			return true;
+		}
+
+		@Override
+		public void endVisit(Block node) {
+		}
+
+		@Override
+		public void postVisit(ASTNode node) {
+		}
+
+	}
+
+	private static class TestVisitorPreparator implements VisitorPreparator {
+
+		private final Phase phase;
+
+		private final ASTVisitor visitor;
+
+		TestVisitorPreparator(Phase phase) {
+			this(phase, null);
+		}
+
+		TestVisitorPreparator(Phase phase, ASTVisitor visitor) {
+			this.phase = phase;
+			this.visitor = visitor;
+		}
+
+		@Override
+		public Phase getPhase() {
+			return this.phase;
+		}
+
+		@Override
+		public ASTVisitor getVisitor(int kind, TokenManager tokenManager) {
+			return this.visitor;
+		}
+
+	}
+
+}
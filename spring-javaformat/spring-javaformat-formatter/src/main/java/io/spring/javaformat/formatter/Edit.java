@@ -16,10 +16,9 @@
 
 package io.spring.javaformat.formatter;
 
-import java.util.regex.Pattern;
+import java.util.List;
 
-import org.eclipse.jface.text.Document;
-import org.eclipse.jface.text.IDocument;
+import org.eclipse.text.edits.ReplaceEdit;
 import org.eclipse.text.edits.TextEdit;
 
 /**
@@ -29,8 +28,6 @@ import org.eclipse.text.edits.TextEdit;
  */
 public abstract class Edit {
 
-	private static final Pattern TRAILING_WHITESPACE = Pattern.compile(" +$", Pattern.MULTILINE);
-
 	private final String originalContent;
 
 	private final TextEdit textEdit;
@@ -42,18 +39,46 @@ public abstract class Edit {
 	}
 
 	public boolean hasEdits() {
-		return (this.textEdit.hasChildren() || this.textEdit.getLength() > 0);
+		return EditApplier.hasEdits(this.textEdit);
+	}
+
+	/**
+	 * Return if applying the edits would change the original content. Unlike
+	 * {@link #hasEdits()}, edits that produce the same content are not considered to be
+	 * changes.
+	 * @return if the content is changed
+	 * @throws Exception on error
+	 */
+	public boolean isChanged() throws Exception {
+		return hasEdits() && !EditApplier.isUnchanged(this.originalContent, this.textEdit);
 	}
 
 	public String getFormattedContent() throws Exception {
-		IDocument document = new Document(this.originalContent);
-		this.textEdit.apply(document);
-		String formattedContent = document.get();
-		return trimTrailingWhitespace(formattedContent);
+		StringBuilder formattedContent = new StringBuilder(this.originalContent.length());
+		writeFormattedContent(formattedContent);
+		return formattedContent.toString();
+	}
+
+	/**
+	 * Return the minimal {@link ReplaceEdit replace edits} that turn the original content
+	 * into the {@link #getFormattedContent() formatted content}. Edits are sorted, do not
+	 * overlap and use offsets from the original content, making them suitable for editors
+	 * that apply incremental changes.
+	 * @return the replace edits
+	 * @throws Exception on error
+	 */
+	public List<ReplaceEdit> getReplaceEdits() throws Exception {
+		return EditApplier.getReplaceEdits(this.originalContent, this.textEdit);
 	}
 
-	private String trimTrailingWhitespace(String content) {
-		return TRAILING_WHITESPACE.matcher(content).replaceAll("");
+	/**
+	 * Write the formatted content to the given {@link Appendable} without creating an
+	 * intermediate copy of the whole result.
+	 * @param appendable the destination of the formatted content
+	 * @throws Exception on error
+	 */
+	protected void writeFormattedContent(Appendable appendable) throws Exception {
+		EditApplier.apply(this.originalContent, this.textEdit, appendable);
 	}
 
 }
@@ -0,0 +1,455 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.text.edits.DeleteEdit;
+import org.eclipse.text.edits.InsertEdit;
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+
+/**
+ * Internal utility used to apply the edits from a {@link TextEdit} to original content in
+ * a single pass. The sorted leaf edits are applied directly against the original
+ * {@link String} and trailing spaces are removed from each line as the result is
+ * written.
+ *
+ * @author Phillip Webb
+ */
+final class EditApplier {
+
+	private EditApplier() {
+	}
+
+	/**
+	 * Return if the given text edit has any edits.
+	 * @param textEdit the text edit to check
+	 * @return if there are edits
+	 */
+	static boolean hasEdits(TextEdit textEdit) {
+		return (textEdit.hasChildren() || textEdit.getLength() > 0);
+	}
+
+	/**
+	 * Apply the given text edit to the content, appending the result to the given
+	 * {@link Appendable}.
+	 * @param content the original content
+	 * @param textEdit the text edit to apply
+	 * @param appendable the destination of the formatted content
+	 * @throws Exception on error
+	 */
+	static void apply(String content, TextEdit textEdit, Appendable appendable) throws Exception {
+		apply(content, textEdit, new AppendableSink(appendable));
+	}
+
+	/**
+	 * Return if applying the given text edit would leave the content unchanged. Checking
+	 * stops as soon as the first difference is found.
+	 * @param content the original content
+	 * @param textEdit the text edit
+	 * @return if the formatted content is the same as the original
+	 * @throws Exception on error
+	 */
+	static boolean isUnchanged(String content, TextEdit textEdit) throws Exception {
+		return apply(content, textEdit, new ComparingSink(content));
+	}
+
+	/**
+	 * Return the minimal replace edits that turn the content into the same result as
+	 * {@link #apply(String, TextEdit, Appendable)}. Edits are sorted, do not overlap and
+	 * use offsets from the original content. Replacements that do not change the content
+	 * are dropped and trailing space removal is included.
+	 * @param content the original content
+	 * @param textEdit the text edit
+	 * @return the replace edits
+	 * @throws Exception on error
+	 */
+	static List<ReplaceEdit> getReplaceEdits(String content, TextEdit textEdit) throws Exception {
+		ReplaceEditsBuilder builder = new ReplaceEditsBuilder(content);
+		List<TextEdit> edits = new ArrayList<>();
+		if (!collectLeafEdits(textEdit, edits)) {
+			IDocument document = new Document(content);
+			textEdit.apply(document);
+			String formatted = document.get();
+			builder.replacement(0, content.length(), formatted);
+			return builder.finish();
+		}
+		int position = 0;
+		for (TextEdit edit : edits) {
+			builder.original(position, edit.getOffset());
+			builder.replacement(edit.getOffset(), edit.getExclusiveEnd(), getText(edit));
+			position = edit.getExclusiveEnd();
+		}
+		builder.original(position, content.length());
+		return builder.finish();
+	}
+
+	private static boolean apply(String content, TextEdit textEdit, Sink sink) throws Exception {
+		List<TextEdit> edits = new ArrayList<>();
+		if (!collectLeafEdits(textEdit, edits)) {
+			IDocument document = new Document(content);
+			textEdit.apply(document);
+			content = document.get();
+			edits = Collections.emptyList();
+		}
+		TrimmingSink trimmingSink = new TrimmingSink(sink);
+		int position = 0;
+		for (TextEdit edit : edits) {
+			if (!trimmingSink.append(content, position, edit.getOffset())) {
+				return false;
+			}
+			String text = getText(edit);
+			if (!trimmingSink.append(text, 0, text.length())) {
+				return false;
+			}
+			position = edit.getExclusiveEnd();
+		}
+		return trimmingSink.append(content, position, content.length()) && trimmingSink.finish();
+	}
+
+	private static boolean collectLeafEdits(TextEdit textEdit, List<TextEdit> edits) {
+		if (isLeaf(textEdit)) {
+			edits.add(textEdit);
+			return true;
+		}
+		if (textEdit.getClass() != MultiTextEdit.class) {
+			return false;
+		}
+		for (TextEdit child : textEdit.getChildren()) {
+			if (!collectLeafEdits(child, edits)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isLeaf(TextEdit edit) {
+		return !edit.hasChildren()
+				&& (edit instanceof ReplaceEdit || edit instanceof InsertEdit || edit instanceof DeleteEdit);
+	}
+
+	private static String getText(TextEdit edit) {
+		if (edit instanceof ReplaceEdit) {
+			return ((ReplaceEdit) edit).getText();
+		}
+		if (edit instanceof InsertEdit) {
+			return ((InsertEdit) edit).getText();
+		}
+		return "";
+	}
+
+	private static boolean isLineTerminator(char ch) {
+		return ch == '\n' || ch == '\r' || ch == '\u0085' || ch == '\u2028' || ch == '\u2029';
+	}
+
+	/**
+	 * Sink that receives the characters of the result.
+	 */
+	private interface Sink {
+
+		/**
+		 * Append a range of characters.
+		 * @param text the source text
+		 * @param start the start index (inclusive)
+		 * @param end the end index (exclusive)
+		 * @return {@code true} if processing should continue
+		 * @throws Exception on error
+		 */
+		boolean append(String text, int start, int end) throws Exception;
+
+		/**
+		 * Finish processing.
+		 * @return the result
+		 * @throws Exception on error
+		 */
+		boolean finish() throws Exception;
+
+	}
+
+	/**
+	 * Removes trailing spaces from each line before passing characters to a
+	 * {@link Sink}. Spaces are only written once a following character on the same line
+	 * is found.
+	 */
+	private static final class TrimmingSink {
+
+		private static final String SPACES = "                                ";
+
+		private final Sink delegate;
+
+		private int pendingSpaces;
+
+		TrimmingSink(Sink delegate) {
+			this.delegate = delegate;
+		}
+
+		boolean append(String text, int start, int end) throws Exception {
+			int index = start;
+			while (index < end) {
+				char ch = text.charAt(index);
+				if (ch == ' ') {
+					this.pendingSpaces++;
+					index++;
+					continue;
+				}
+				if (isLineTerminator(ch)) {
+					this.pendingSpaces = 0;
+				}
+				else if (!appendPendingSpaces()) {
+					return false;
+				}
+				int runEnd = index + 1;
+				while (runEnd < end && text.charAt(runEnd) != ' ') {
+					runEnd++;
+				}
+				if (!this.delegate.append(text, index, runEnd)) {
+					return false;
+				}
+				index = runEnd;
+			}
+			return true;
+		}
+
+		private boolean appendPendingSpaces() throws Exception {
+			while (this.pendingSpaces > 0) {
+				int count = Math.min(this.pendingSpaces, SPACES.length());
+				if (!this.delegate.append(SPACES, 0, count)) {
+					return false;
+				}
+				this.pendingSpaces -= count;
+			}
+			return true;
+		}
+
+		boolean finish() throws Exception {
+			this.pendingSpaces = 0;
+			return this.delegate.finish();
+		}
+
+	}
+
+	/**
+	 * Builds minimal {@link ReplaceEdit replace edits} from original content and leaf
+	 * edits. Spaces are queued until the next character on the same line is found so that
+	 * trailing spaces are removed in the same way as {@link TrimmingSink}.
+	 */
+	private static final class ReplaceEditsBuilder {
+
+		private final String content;
+
+		private final List<ReplaceEdit> result = new ArrayList<>();
+
+		private final List<Queued> queue = new ArrayList<>();
+
+		private final StringBuilder changeText = new StringBuilder();
+
+		private int changeStart = -1;
+
+		private int changeEnd;
+
+		ReplaceEditsBuilder(String content) {
+			this.content = content;
+		}
+
+		void original(int start, int end) {
+			int index = start;
+			while (index < end) {
+				int runEnd = nextRunEnd(this.content, index, end);
+				if (this.content.charAt(index) == ' ') {
+					this.queue.add(new Queued(index, runEnd, null, true));
+				}
+				else {
+					processQueue(isLineTerminator(this.content.charAt(index)));
+					flush();
+				}
+				index = runEnd;
+			}
+		}
+
+		void replacement(int start, int end, String text) {
+			if (this.queue.isEmpty()) {
+				replace(start, end, "", 0, 0);
+			}
+			else {
+				this.queue.add(new Queued(start, end, "", false));
+			}
+			int index = 0;
+			while (index < text.length()) {
+				int runEnd = nextRunEnd(text, index, text.length());
+				if (text.charAt(index) == ' ') {
+					this.queue.add(new Queued(end, end, text.substring(index, runEnd), true));
+				}
+				else {
+					processQueue(isLineTerminator(text.charAt(index)));
+					replace(end, end, text, index, runEnd);
+				}
+				index = runEnd;
+			}
+		}
+
+		List<ReplaceEdit> finish() {
+			processQueue(true);
+			flush();
+			return this.result;
+		}
+
+		private void replace(int start, int end, CharSequence text, int textStart, int textEnd) {
+			if (this.changeStart == -1) {
+				this.changeStart = start;
+			}
+			this.changeEnd = end;
+			this.changeText.append(text, textStart, textEnd);
+		}
+
+		private int nextRunEnd(String text, int start, int end) {
+			boolean space = text.charAt(start) == ' ';
+			int runEnd = start + 1;
+			while (runEnd < end && (text.charAt(runEnd) == ' ') == space) {
+				runEnd++;
+			}
+			return runEnd;
+		}
+
+		private void processQueue(boolean trim) {
+			for (Queued queued : this.queue) {
+				if (queued.text == null) {
+					if (trim) {
+						replace(queued.start, queued.end, "", 0, 0);
+					}
+					else {
+						flush();
+					}
+				}
+				else if (!trim || !queued.spaces) {
+					replace(queued.start, queued.end, queued.text, 0, queued.text.length());
+				}
+			}
+			this.queue.clear();
+		}
+
+		private void flush() {
+			if (this.changeStart == -1) {
+				return;
+			}
+			int start = this.changeStart;
+			int end = this.changeEnd;
+			int textStart = 0;
+			int textEnd = this.changeText.length();
+			while (start < end && textStart < textEnd
+					&& this.content.charAt(start) == this.changeText.charAt(textStart)) {
+				start++;
+				textStart++;
+			}
+			while (start < end && textStart < textEnd
+					&& this.content.charAt(end - 1) == this.changeText.charAt(textEnd - 1)) {
+				end--;
+				textEnd--;
+			}
+			if (start < end || textStart < textEnd) {
+				this.result.add(new ReplaceEdit(start, end - start, this.changeText.substring(textStart, textEnd)));
+			}
+			this.changeStart = -1;
+			this.changeText.setLength(0);
+		}
+
+		/**
+		 * An original range or replacement text that is queued until it is known if
+		 * trailing spaces should be removed. Original spaces have {@code null} text.
+		 */
+		private static final class Queued {
+
+			private final int start;
+
+			private final int end;
+
+			private final String text;
+
+			private final boolean spaces;
+
+			Queued(int start, int end, String text, boolean spaces) {
+				this.start = start;
+				this.end = end;
+				this.text = text;
+				this.spaces = spaces;
+			}
+
+		}
+
+	}
+
+	/**
+	 * {@link Sink} that writes to an {@link Appendable}.
+	 */
+	private static final class AppendableSink implements Sink {
+
+		private final Appendable appendable;
+
+		AppendableSink(Appendable appendable) {
+			this.appendable = appendable;
+		}
+
+		@Override
+		public boolean append(String text, int start, int end) throws IOException {
+			this.appendable.append(text, start, end);
+			return true;
+		}
+
+		@Override
+		public boolean finish() {
+			return true;
+		}
+
+	}
+
+	/**
+	 * {@link Sink} that compares the result with the original content.
+	 */
+	private static final class ComparingSink implements Sink {
+
+		private final String content;
+
+		private int position;
+
+		ComparingSink(String content) {
+			this.content = content;
+		}
+
+		@Override
+		public boolean append(String text, int start, int end) {
+			int length = end - start;
+			if (!this.content.regionMatches(this.position, text, start, length)) {
+				return false;
+			}
+			this.position += length;
+			return true;
+		}
+
+		@Override
+		public boolean finish() {
+			return this.position == this.content.length();
+		}
+
+	}
+
+}
@@ -16,10 +16,17 @@
 
 package io.spring.javaformat.formatter;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
 
 import org.eclipse.text.edits.TextEdit;
 
@@ -45,16 +52,56 @@ public class FileEdit extends Edit {
 	}
 
 	public void save() {
+		saveIfChanged();
+	}
+
+	/**
+	 * Save the formatted content if it differs from the original content. Content is
+	 * first written to a temporary file which is then moved over the original, so the
+	 * file is never left partially written.
+	 * @return {@code true} if the file was written or {@code false} if it was already
+	 * formatted
+	 */
+	public boolean saveIfChanged() {
 		try {
-			String formattedContent = getFormattedContent();
-			byte[] bytes = formattedContent.getBytes(this.encoding);
-			Files.write(this.file.toPath(), bytes, StandardOpenOption.TRUNCATE_EXISTING);
+			if (!isChanged()) {
+				return false;
+			}
+			Path path = this.file.toPath().toRealPath();
+			Path temp = Files.createTempFile(path.getParent(), "." + path.getFileName(), ".tmp");
+			try {
+				try (Writer writer = new BufferedWriter(
+						new OutputStreamWriter(Files.newOutputStream(temp), this.encoding))) {
+					writeFormattedContent(writer);
+				}
+				copyPermissions(path, temp);
+				move(temp, path);
+			}
+			finally {
+				Files.deleteIfExists(temp);
+			}
+			return true;
 		}
 		catch (Exception ex) {
 			throw FileFormatterException.wrap(this.file, ex);
 		}
 	}
 
+	private void copyPermissions(Path source, Path destination) throws IOException {
+		if (Files.getFileAttributeView(source, PosixFileAttributeView.class) != null) {
+			Files.setPosixFilePermissions(destination, Files.getPosixFilePermissions(source));
+		}
+	}
+
+	private void move(Path source, Path destination) throws IOException {
+		try {
+			Files.move(source, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex) {
+			Files.move(source, destination, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
 	@Override
 	public String getFormattedContent() throws Exception {
 		try {
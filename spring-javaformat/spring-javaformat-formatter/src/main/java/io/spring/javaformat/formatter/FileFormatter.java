@@ -17,37 +17,144 @@
 package io.spring.javaformat.formatter;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Properties;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import org.eclipse.text.edits.MultiTextEdit;
 import org.eclipse.text.edits.TextEdit;
 
 import io.spring.javaformat.config.JavaFormatConfig;
 
 /**
- * A code formatter designed to work with {@link File Files}.
+ * A code formatter designed to work with {@link File Files}. Formatters that process
+ * files in parallel use worker threads that are released when the formatter is
+ * {@link #close() closed}.
  *
  * @author Phillip Webb
  * @see Formatter
  */
-public class FileFormatter {
+public class FileFormatter implements AutoCloseable {
 
-	private final Formatter formatter;
+	/**
+	 * The default parallelism used when formatting multiple files.
+	 */
+	public static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+	private static final long WORKER_KEEP_ALIVE_SECONDS = 10;
+
+	private static final String VERSION = loadVersion();
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private final Supplier<Formatter> formatterFactory;
+
+	private final int parallelism;
+
+	private final JavaFormatConfig javaFormatConfig;
+
+	private final FormatCache cache;
+
+	private final Deque<Formatter> idleFormatters = new ConcurrentLinkedDeque<>();
+
+	private ExecutorService executor;
 
 	public FileFormatter() {
-		this(new Formatter());
+		this(JavaFormatConfig.DEFAULT);
 	}
 
 	public FileFormatter(JavaFormatConfig javaFormatConfig) {
-		this(new Formatter(javaFormatConfig));
+		this(javaFormatConfig, DEFAULT_PARALLELISM);
+	}
+
+	/**
+	 * Create a new {@link FileFormatter} instance that formats multiple files using the
+	 * given degree of parallelism. Each worker uses its own {@link Formatter}.
+	 * @param javaFormatConfig the java format config to use
+	 * @param parallelism the maximum number of files to format concurrently
+	 */
+	public FileFormatter(JavaFormatConfig javaFormatConfig, int parallelism) {
+		this(javaFormatConfig, parallelism, FormatCache.NONE);
+	}
+
+	/**
+	 * Create a new {@link FileFormatter} instance that formats multiple files using the
+	 * given degree of parallelism and skips files that the cache reports as already
+	 * formatted.
+	 * @param javaFormatConfig the java format config to use
+	 * @param parallelism the maximum number of files to format concurrently
+	 * @param cache the cache used to record formatted content
+	 */
+	public FileFormatter(JavaFormatConfig javaFormatConfig, int parallelism, FormatCache cache) {
+		this(() -> new Formatter(javaFormatConfig), parallelism, javaFormatConfig, cache);
 	}
 
 	public FileFormatter(Formatter formatter) {
+		this(() -> formatter, 1);
 		Optional.ofNullable(formatter).orElseThrow(() -> new IllegalArgumentException("Formatter must not be null"));
-		this.formatter = formatter;
+	}
+
+	/**
+	 * Create a new {@link FileFormatter} instance that formats multiple files using the
+	 * given degree of parallelism.
+	 * @param formatterFactory factory used to create a {@link Formatter} for each worker
+	 * @param parallelism the maximum number of files to format concurrently
+	 */
+	public FileFormatter(Supplier<Formatter> formatterFactory, int parallelism) {
+		this(formatterFactory, parallelism, null, FormatCache.NONE);
+	}
+
+	/**
+	 * Create a new {@link FileFormatter} instance that formats multiple files using the
+	 * given degree of parallelism and skips files that the cache reports as already
+	 * formatted. The {@link JavaFormatConfig} must match the one used by the formatters
+	 * that the factory creates since it forms part of the cache key.
+	 * @param formatterFactory factory used to create a {@link Formatter} for each worker
+	 * @param parallelism the maximum number of files to format concurrently
+	 * @param javaFormatConfig the java format config used by the formatters
+	 * @param cache the cache used to record formatted content
+	 */
+	public FileFormatter(Supplier<Formatter> formatterFactory, int parallelism, JavaFormatConfig javaFormatConfig,
+			FormatCache cache) {
+		Optional.ofNullable(formatterFactory)
+			.orElseThrow(() -> new IllegalArgumentException("FormatterFactory must not be null"));
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive");
+		}
+		Optional.ofNullable(cache).orElseThrow(() -> new IllegalArgumentException("Cache must not be null"));
+		if (cache != FormatCache.NONE && javaFormatConfig == null) {
+			throw new IllegalArgumentException("JavaFormatConfig must not be null when using a cache");
+		}
+		this.formatterFactory = formatterFactory;
+		this.parallelism = parallelism;
+		this.javaFormatConfig = javaFormatConfig;
+		this.cache = cache;
 	}
 
 	/**
@@ -93,7 +200,69 @@ public class FileFormatter {
 	 * @return a stream of file edits
 	 */
 	public Stream<FileEdit> formatFiles(Stream<File> files, Charset encoding, String lineSeparator) {
-		return files.map((file) -> formatFile(file, encoding, lineSeparator));
+		return process(files, (file) -> formatFile(file, encoding, lineSeparator));
+	}
+
+	/**
+	 * Check the given source files and provide a {@link Stream} of the files that are
+	 * not correctly formatted.
+	 * @param files the files to check
+	 * @param encoding the source encoding
+	 * @return a stream of files that are not formatted
+	 * @see #checkFiles(Iterable, Charset, String)
+	 */
+	public Stream<File> checkFiles(Iterable<File> files, Charset encoding) {
+		return checkFiles(files, encoding, Formatter.DEFAULT_LINE_SEPARATOR);
+	}
+
+	/**
+	 * Check the given source files and provide a {@link Stream} of the files that are
+	 * not correctly formatted.
+	 * @param files the files to check
+	 * @param encoding the source encoding
+	 * @return a stream of files that are not formatted
+	 * @see #checkFiles(Stream, Charset, String)
+	 */
+	public Stream<File> checkFiles(Stream<File> files, Charset encoding) {
+		return checkFiles(files, encoding, Formatter.DEFAULT_LINE_SEPARATOR);
+	}
+
+	/**
+	 * Check the given source files and provide a {@link Stream} of the files that are
+	 * not correctly formatted. Unlike {@link #formatFiles(Iterable, Charset, String)},
+	 * no {@link FileEdit} instances are created and checking of each file stops as soon
+	 * as a difference is found.
+	 * @param files the files to check
+	 * @param encoding the source encoding
+	 * @param lineSeparator the line separator
+	 * @return a stream of files that are not formatted
+	 */
+	public Stream<File> checkFiles(Iterable<File> files, Charset encoding, String lineSeparator) {
+		return checkFiles(StreamSupport.stream(files.spliterator(), false), encoding, lineSeparator);
+	}
+
+	/**
+	 * Check the given source files and provide a {@link Stream} of the files that are
+	 * not correctly formatted. Unlike {@link #formatFiles(Stream, Charset, String)}, no
+	 * {@link FileEdit} instances are created and checking of each file stops as soon as
+	 * a difference is found.
+	 * @param files the files to check
+	 * @param encoding the source encoding
+	 * @param lineSeparator the line separator
+	 * @return a stream of files that are not formatted
+	 */
+	public Stream<File> checkFiles(Stream<File> files, Charset encoding, String lineSeparator) {
+		return process(files, (file) -> isFormatted(file, encoding, lineSeparator) ? null : file)
+			.filter(Objects::nonNull);
+	}
+
+	private <T> Stream<T> process(Stream<File> files, Function<File, T> action) {
+		if (this.parallelism == 1) {
+			return files.map(action);
+		}
+		ParallelIterator<T> iterator = new ParallelIterator<>(files.iterator(), action);
+		Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED);
+		return StreamSupport.stream(spliterator, false).onClose(iterator::cancel).onClose(files::close);
 	}
 
 	/**
@@ -115,13 +284,219 @@ public class FileFormatter {
 	 */
 	public FileEdit formatFile(File file, Charset encoding, String lineSeparator) {
 		try {
-			String content = new String(Files.readAllBytes(file.toPath()), encoding);
-			TextEdit edit = this.formatter.format(content, lineSeparator);
-			return new FileEdit(file, encoding, content, edit);
+			byte[] bytes = Files.readAllBytes(file.toPath());
+			String content = new String(bytes, encoding);
+			String cacheKey = getCacheKey(bytes, encoding, lineSeparator);
+			if (cacheKey != null && this.cache.contains(cacheKey)) {
+				return new FileEdit(file, encoding, content, new MultiTextEdit());
+			}
+			FileEdit edit = new FileEdit(file, encoding, content, format(content, lineSeparator));
+			if (cacheKey != null && !edit.hasEdits()) {
+				this.cache.add(cacheKey);
+			}
+			return edit;
 		}
 		catch (Exception ex) {
 			throw FileFormatterException.wrap(file, ex);
 		}
 	}
 
+	/**
+	 * Return if the given source file is correctly formatted.
+	 * @param file the file to check
+	 * @param encoding the source encoding
+	 * @return {@code true} if the file is formatted
+	 */
+	public boolean isFormatted(File file, Charset encoding) {
+		return isFormatted(file, encoding, Formatter.DEFAULT_LINE_SEPARATOR);
+	}
+
+	/**
+	 * Return if the given source file is correctly formatted. A file is considered
+	 * formatted if the formatter produces no edits, or if applying the edits would not
+	 * change the saved content.
+	 * @param file the file to check
+	 * @param encoding the source encoding
+	 * @param lineSeparator the line separator
+	 * @return {@code true} if the file is formatted
+	 */
+	public boolean isFormatted(File file, Charset encoding, String lineSeparator) {
+		try {
+			byte[] bytes = Files.readAllBytes(file.toPath());
+			String cacheKey = getCacheKey(bytes, encoding, lineSeparator);
+			if (cacheKey != null && this.cache.contains(cacheKey)) {
+				return true;
+			}
+			String content = new String(bytes, encoding);
+			TextEdit edit = format(content, lineSeparator);
+			boolean formatted = !EditApplier.hasEdits(edit) || EditApplier.isUnchanged(content, edit);
+			if (cacheKey != null && formatted) {
+				this.cache.add(cacheKey);
+			}
+			return formatted;
+		}
+		catch (Exception ex) {
+			throw FileFormatterException.wrap(file, ex);
+		}
+	}
+
+	private TextEdit format(String content, String lineSeparator) {
+		Formatter formatter = borrowFormatter();
+		try {
+			return formatter.format(content, lineSeparator);
+		}
+		finally {
+			this.idleFormatters.push(formatter);
+		}
+	}
+
+	private String getCacheKey(byte[] content, Charset encoding, String lineSeparator)
+			throws NoSuchAlgorithmException {
+		if (this.cache == FormatCache.NONE || VERSION == null) {
+			return null;
+		}
+		MessageDigest digest = MessageDigest.getInstance("SHA-256");
+		update(digest, VERSION);
+		update(digest, this.javaFormatConfig.getJavaBaseline().name());
+		update(digest, this.javaFormatConfig.getIndentationStyle().name());
+		update(digest, lineSeparator);
+		update(digest, encoding.name());
+		digest.update(content);
+		StringBuilder key = new StringBuilder();
+		for (byte b : digest.digest()) {
+			key.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+		}
+		return key.toString();
+	}
+
+	private void update(MessageDigest digest, String value) {
+		digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	private Formatter borrowFormatter() {
+		Formatter formatter = this.idleFormatters.poll();
+		return (formatter != null) ? formatter : this.formatterFactory.get();
+	}
+
+	/**
+	 * Shut down any worker threads used by this formatter. The formatter can still be used
+	 * after it has been closed, in which case new worker threads are created as needed.
+	 */
+	@Override
+	public synchronized void close() {
+		if (this.executor != null) {
+			this.executor.shutdown();
+			this.executor = null;
+		}
+	}
+
+	private synchronized ExecutorService getExecutor() {
+		if (this.executor == null) {
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(this.parallelism, this.parallelism,
+					WORKER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+					new WorkerThreadFactory());
+			executor.allowCoreThreadTimeOut(true);
+			this.executor = executor;
+		}
+		return this.executor;
+	}
+
+	private static String loadVersion() {
+		try (InputStream inputStream = FileFormatter.class.getResourceAsStream("version.properties")) {
+			if (inputStream == null) {
+				return null;
+			}
+			Properties properties = new Properties();
+			properties.load(inputStream);
+			String version = properties.getProperty("version");
+			return (version != null && !version.isEmpty() && !version.startsWith("${")) ? version : null;
+		}
+		catch (IOException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * {@link Iterator} that processes files using worker threads whilst still returning
+	 * results in the order of the source files.
+	 *
+	 * @param <T> the result type
+	 */
+	private class ParallelIterator<T> implements Iterator<T> {
+
+		private final Iterator<File> files;
+
+		private final Function<File, T> action;
+
+		private final Deque<Future<T>> pending = new ArrayDeque<>();
+
+		ParallelIterator(Iterator<File> files, Function<File, T> action) {
+			this.files = files;
+			this.action = action;
+		}
+
+		@Override
+		public boolean hasNext() {
+			submitPending();
+			return !this.pending.isEmpty();
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			try {
+				return this.pending.poll().get();
+			}
+			catch (ExecutionException ex) {
+				cancel();
+				Throwable cause = ex.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IllegalStateException(cause);
+			}
+			catch (InterruptedException ex) {
+				cancel();
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		private void submitPending() {
+			ExecutorService executor = getExecutor();
+			while (this.pending.size() < FileFormatter.this.parallelism * 2 && this.files.hasNext()) {
+				File file = this.files.next();
+				this.pending.add(executor.submit(() -> this.action.apply(file)));
+			}
+		}
+
+		void cancel() {
+			this.pending.forEach((future) -> future.cancel(true));
+			this.pending.clear();
+		}
+
+	}
+
+	/**
+	 * {@link ThreadFactory} used to create daemon worker threads.
+	 */
+	private static class WorkerThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "spring-javaformat-" + this.count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
 }
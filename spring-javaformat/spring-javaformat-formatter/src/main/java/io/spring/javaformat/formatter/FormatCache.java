@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter;
+
+/**
+ * Cache used by {@link FileFormatter} to record content that is known to be formatted.
+ * Keys are opaque strings derived from the content, the formatter configuration and the
+ * formatter version. Implementations must be thread-safe.
+ *
+ * @author agent (agent@local)
+ * @see PersistentFormatCache
+ */
+public interface FormatCache {
+
+	/**
+	 * A {@link FormatCache} that never caches anything.
+	 */
+	FormatCache NONE = new FormatCache() {
+
+		@Override
+		public boolean contains(String key) {
+			return false;
+		}
+
+		@Override
+		public void add(String key) {
+		}
+
+	};
+
+	/**
+	 * Return if the cache contains the given key.
+	 * @param key the key to check
+	 * @return if the content for the key is known to be formatted
+	 */
+	boolean contains(String key);
+
+	/**
+	 * Add the given key to the cache.
+	 * @param key the key of content that is known to be formatted
+	 */
+	void add(String key);
+
+}
@@ -19,11 +19,13 @@ package io.spring.javaformat.formatter;
 import java.util.Map;
 
 import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
 import org.eclipse.text.edits.TextEdit;
 
 import io.spring.javaformat.config.JavaBaseline;
 import io.spring.javaformat.config.JavaFormatConfig;
 import io.spring.javaformat.formatter.eclipse.EclipseCodeFormatter;
+import io.spring.javaformat.formatter.eclipse.FormatRecorder;
 import io.spring.javaformat.formatter.jdk17.eclipse.EclipseJdk17CodeFormatter;
 import io.spring.javaformat.formatter.jdk8.eclipse.EclipseJdk8CodeFormatter;
 
@@ -63,6 +65,8 @@ public class Formatter {
 
 	private final EclipseCodeFormatter delegate;
 
+	private volatile FormatterListener listener;
+
 	/**
 	 * Create a new formatter instance.
 	 */
@@ -75,8 +79,15 @@ public class Formatter {
 	 * @param javaFormatConfig the java format config to use
 	 */
 	public Formatter(JavaFormatConfig javaFormatConfig) {
-		this.delegate = javaFormatConfig.getJavaBaseline() == JavaBaseline.V8
-				? new EclipseJdk8CodeFormatter(javaFormatConfig) : new EclipseJdk17CodeFormatter(javaFormatConfig);
+		this(createDelegate(javaFormatConfig));
+	}
+
+	Formatter(EclipseCodeFormatter delegate) {
+		this.delegate = delegate;
+	}
+
+	EclipseCodeFormatter getDelegate() {
+		return this.delegate;
 	}
 
 	/**
@@ -123,6 +134,10 @@ public class Formatter {
 
 	public TextEdit format(int kind, String source, int offset, int length, int indentationLevel,
 			String lineSeparator) {
+		if (this.listener != null) {
+			// Metrics can only be recorded when formatting regions
+			return format(kind, source, new IRegion[] { new Region(offset, length) }, indentationLevel, lineSeparator);
+		}
 		lineSeparator = (lineSeparator != null) ? lineSeparator : detectLineSeparator(source);
 		return this.delegate.format(kind, source, offset, length, indentationLevel, lineSeparator);
 	}
@@ -150,6 +165,11 @@ public class Formatter {
 
 	public TextEdit format(int kind, String source, IRegion[] regions, int indentationLevel, String lineSeparator) {
 		lineSeparator = (lineSeparator != null) ? lineSeparator : detectLineSeparator(source);
+		FormatterListener listener = this.listener;
+		if (listener != null) {
+			return this.delegate.format(kind, source, regions, indentationLevel, lineSeparator,
+					new MetricsRecorder(listener));
+		}
 		return this.delegate.format(kind, source, regions, indentationLevel, lineSeparator);
 	}
 
@@ -161,6 +181,24 @@ public class Formatter {
 		this.delegate.setOptions(options);
 	}
 
+	/**
+	 * Set the listener that should receive {@link FormatterMetrics} for each format
+	 * operation. No metrics are collected when the listener is {@code null} (the
+	 * default). The listener may be changed while other threads are formatting, in
+	 * which case operations that are already running keep reporting to the previous
+	 * listener. When a listener is set, offset and length based format operations are
+	 * performed as a single region so that the same metrics can be collected.
+	 * @param listener the listener or {@code null}
+	 */
+	public void setListener(FormatterListener listener) {
+		this.listener = listener;
+	}
+
+	static EclipseCodeFormatter createDelegate(JavaFormatConfig javaFormatConfig) {
+		return javaFormatConfig.getJavaBaseline() == JavaBaseline.V8 ? new EclipseJdk8CodeFormatter(javaFormatConfig)
+				: new EclipseJdk17CodeFormatter(javaFormatConfig);
+	}
+
 	private String detectLineSeparator(String contents) {
 		int length = contents.length();
 		for (int i = 0; i < length; i++) {
@@ -176,4 +214,32 @@ public class Formatter {
 		return null;
 	}
 
+	/**
+	 * {@link FormatRecorder} that collects {@link FormatterMetrics} for a
+	 * {@link FormatterListener}.
+	 */
+	private static final class MetricsRecorder implements FormatRecorder {
+
+		private final FormatterListener listener;
+
+		private final long[] phaseNanos = new long[FormatterPhase.values().length];
+
+		MetricsRecorder(FormatterListener listener) {
+			this.listener = listener;
+		}
+
+		@Override
+		public void stageCompleted(String stage, long durationNanos) {
+			this.phaseNanos[FormatterPhase.valueOf(stage).ordinal()] += durationNanos;
+		}
+
+		@Override
+		public void formatCompleted(long durationNanos, int tokenCount, int wrappableTokenCount,
+				int wrappedTokenCount) {
+			this.listener.formatted(new FormatterMetrics(this.phaseNanos, durationNanos, tokenCount,
+					wrappableTokenCount, wrappedTokenCount));
+		}
+
+	}
+
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter;
+
+/**
+ * Listener that can be {@link Formatter#setListener(FormatterListener) registered} with a
+ * {@link Formatter} to receive {@link FormatterMetrics} for each format operation.
+ *
+ * @author Phillip Webb
+ */
+@FunctionalInterface
+public interface FormatterListener {
+
+	/**
+	 * Called when a format operation completes. Called on the thread that performed the
+	 * formatting.
+	 * @param metrics the metrics of the operation
+	 */
+	void formatted(FormatterMetrics metrics);
+
+}
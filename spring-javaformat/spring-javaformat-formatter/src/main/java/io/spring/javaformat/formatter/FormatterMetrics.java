@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter;
+
+import java.time.Duration;
+
+/**
+ * Metrics collected for a single {@link Formatter} operation.
+ *
+ * @author Phillip Webb
+ * @see FormatterListener
+ */
+public final class FormatterMetrics {
+
+	private final long[] phaseNanos;
+
+	private final long totalNanos;
+
+	private final int tokenCount;
+
+	private final int wrappableTokenCount;
+
+	private final int wrappedTokenCount;
+
+	FormatterMetrics(long[] phaseNanos, long totalNanos, int tokenCount, int wrappableTokenCount,
+			int wrappedTokenCount) {
+		this.phaseNanos = phaseNanos;
+		this.totalNanos = totalNanos;
+		this.tokenCount = tokenCount;
+		this.wrappableTokenCount = wrappableTokenCount;
+		this.wrappedTokenCount = wrappedTokenCount;
+	}
+
+	/**
+	 * Return the time taken by the given phase. Phases that did not run, for example
+	 * because the source could not be parsed, return {@link Duration#ZERO}.
+	 * @param phase the phase
+	 * @return the duration of the phase
+	 */
+	public Duration getDuration(FormatterPhase phase) {
+		return Duration.ofNanos(this.phaseNanos[phase.ordinal()]);
+	}
+
+	/**
+	 * Return the total time taken by the operation.
+	 * @return the total duration
+	 */
+	public Duration getTotalDuration() {
+		return Duration.ofNanos(this.totalNanos);
+	}
+
+	/**
+	 * Return the number of tokens in the source.
+	 * @return the token count
+	 */
+	public int getTokenCount() {
+		return this.tokenCount;
+	}
+
+	/**
+	 * Return the number of tokens that the formatter could wrap.
+	 * @return the wrappable token count
+	 */
+	public int getWrappableTokenCount() {
+		return this.wrappableTokenCount;
+	}
+
+	/**
+	 * Return the number of wrappable tokens that start a new line once wrapping has
+	 * completed.
+	 * @return the wrapped token count
+	 */
+	public int getWrappedTokenCount() {
+		return this.wrappedTokenCount;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+		result.append("total=").append(getTotalDuration().toMillis()).append("ms");
+		for (FormatterPhase phase : FormatterPhase.values()) {
+			result.append(", ").append(phase.name().toLowerCase()).append("=");
+			result.append(getDuration(phase).toMillis()).append("ms");
+		}
+		result.append(", tokens=").append(this.tokenCount);
+		result.append(", wrappable=").append(this.wrappableTokenCount);
+		result.append(", wrapped=").append(this.wrappedTokenCount);
+		return result.toString();
+	}
+
+}
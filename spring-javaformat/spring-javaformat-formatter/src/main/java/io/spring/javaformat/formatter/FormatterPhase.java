@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter;
+
+/**
+ * The phases of a {@link Formatter} operation that are reported to a
+ * {@link FormatterListener}.
+ *
+ * @author Phillip Webb
+ */
+public enum FormatterPhase {
+
+	/**
+	 * Tokenizing the source.
+	 */
+	TOKENIZE,
+
+	/**
+	 * Parsing the source and preparing spaces, line breaks and comments.
+	 */
+	PARSE,
+
+	/**
+	 * Applying Spring preparators that run before wrapping.
+	 */
+	PRE_WRAPPING,
+
+	/**
+	 * Preparing and executing line wraps, including comment wrapping.
+	 */
+	WRAP,
+
+	/**
+	 * Applying Spring preparators that run after wrapping.
+	 */
+	POST_WRAPPING,
+
+	/**
+	 * Creating the resulting text edits.
+	 */
+	EDITS
+
+}
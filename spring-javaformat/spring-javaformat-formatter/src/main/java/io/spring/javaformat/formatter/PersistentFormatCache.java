@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link FormatCache} backed by a file on disk. Keys are loaded when the cache is created
+ * and written back when {@link #save()} is called. Build plugins typically keep the file
+ * in their build output directory.
+ *
+ * @author agent (agent@local)
+ */
+public class PersistentFormatCache implements FormatCache {
+
+	private final Path file;
+
+	private final Set<String> keys = ConcurrentHashMap.newKeySet();
+
+	private volatile boolean modified;
+
+	/**
+	 * Create a new {@link PersistentFormatCache} instance, loading any existing entries
+	 * from the given file.
+	 * @param file the cache file
+	 */
+	public PersistentFormatCache(File file) {
+		this.file = file.toPath();
+		load();
+	}
+
+	private void load() {
+		if (Files.isRegularFile(this.file)) {
+			try {
+				for (String line : Files.readAllLines(this.file, StandardCharsets.UTF_8)) {
+					if (!line.isEmpty()) {
+						this.keys.add(line);
+					}
+				}
+			}
+			catch (IOException ex) {
+				this.keys.clear();
+			}
+		}
+	}
+
+	@Override
+	public boolean contains(String key) {
+		return this.keys.contains(key);
+	}
+
+	@Override
+	public void add(String key) {
+		if (this.keys.add(key)) {
+			this.modified = true;
+		}
+	}
+
+	/**
+	 * Save the cache to disk if it has been modified.
+	 * @throws IOException on IO error
+	 */
+	public synchronized void save() throws IOException {
+		if (!this.modified) {
+			return;
+		}
+		Path parent = this.file.toAbsolutePath().getParent();
+		Files.createDirectories(parent);
+		Path temp = Files.createTempFile(parent, this.file.getFileName().toString(), ".tmp");
+		try {
+			List<String> lines = new ArrayList<>(this.keys);
+			Files.write(temp, lines, StandardCharsets.UTF_8);
+			Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			this.modified = false;
+		}
+		finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+}
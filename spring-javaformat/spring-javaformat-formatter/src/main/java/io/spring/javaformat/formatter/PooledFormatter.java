@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.spring.javaformat.config.JavaFormatConfig;
+import io.spring.javaformat.formatter.eclipse.PooledEclipseCodeFormatter;
+
+/**
+ * A thread-safe {@link Formatter} that can be shared by concurrent callers. Each format
+ * operation borrows a delegate from a bounded pool and returns it once complete so that
+ * warm delegates can be reused. Instances created with the same
+ * {@link JavaFormatConfig} share a single pool, so their options cannot be changed. Use
+ * a dedicated pool if custom options are required.
+ *
+ * @author agent (agent@local)
+ */
+public class PooledFormatter extends Formatter {
+
+	/**
+	 * The default maximum number of delegates that can be in use at once.
+	 */
+	public static final int DEFAULT_MAX_SIZE = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * The default time in milliseconds after which idle delegates are evicted.
+	 */
+	public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+
+	private static final Map<JavaFormatConfig, PooledEclipseCodeFormatter> SHARED_POOLS = new ConcurrentHashMap<>();
+
+	private final boolean sharedPool;
+
+	/**
+	 * Create a new pooled formatter instance.
+	 */
+	public PooledFormatter() {
+		this(JavaFormatConfig.DEFAULT);
+	}
+
+	/**
+	 * Create a new pooled formatter instance backed by the pool shared with other
+	 * instances using the same config.
+	 * @param javaFormatConfig the java format config to use
+	 */
+	public PooledFormatter(JavaFormatConfig javaFormatConfig) {
+		this(SHARED_POOLS.computeIfAbsent(key(javaFormatConfig),
+				(key) -> createPool(key, DEFAULT_MAX_SIZE, DEFAULT_IDLE_TIMEOUT_MILLIS)), true);
+	}
+
+	/**
+	 * Create a new pooled formatter instance backed by a dedicated pool.
+	 * @param javaFormatConfig the java format config to use
+	 * @param maxSize the maximum number of delegates that can be in use at once
+	 * @param idleTimeoutMillis the time after which an idle delegate is evicted
+	 */
+	public PooledFormatter(JavaFormatConfig javaFormatConfig, int maxSize, long idleTimeoutMillis) {
+		this(createPool(key(javaFormatConfig), maxSize, idleTimeoutMillis), false);
+	}
+
+	private PooledFormatter(PooledEclipseCodeFormatter pool, boolean sharedPool) {
+		super(pool);
+		this.sharedPool = sharedPool;
+	}
+
+	/**
+	 * Set the options used by all delegates in the pool.
+	 * @param options the options
+	 * @throws UnsupportedOperationException if this formatter uses a shared pool
+	 */
+	@Override
+	public void setOptions(Map<String, String> options) {
+		if (this.sharedPool) {
+			throw new UnsupportedOperationException("Options cannot be set on a formatter that uses a shared pool");
+		}
+		super.setOptions(options);
+	}
+
+	private static JavaFormatConfig key(JavaFormatConfig javaFormatConfig) {
+		return JavaFormatConfig.of(javaFormatConfig.getJavaBaseline(), javaFormatConfig.getIndentationStyle());
+	}
+
+	private static PooledEclipseCodeFormatter createPool(JavaFormatConfig javaFormatConfig, int maxSize,
+			long idleTimeoutMillis) {
+		return new PooledEclipseCodeFormatter(() -> createDelegate(javaFormatConfig), maxSize, idleTimeoutMillis);
+	}
+
+}
@@ -63,7 +63,7 @@ public class StreamsEdit extends Edit {
 	 */
 	public void writeTo(Appendable appendable) {
 		try {
-			appendable.append(getFormattedContent());
+			writeFormattedContent(appendable);
 		}
 		catch (Exception ex) {
 			throw new RuntimeException(ex);
@@ -24,6 +24,8 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
 import org.eclipse.text.edits.TextEdit;
 
 import io.spring.javaformat.config.JavaFormatConfig;
@@ -112,6 +114,35 @@ public class StreamsFormatter {
 		}
 	}
 
+	/**
+	 * Format specific regions of content from the given source {@link Reader} and return
+	 * a {@link StreamsEdit} instance. Formatting is limited to the regions but, as with
+	 * other edits, trailing spaces are removed from all of the content when the edit is
+	 * applied.
+	 * @param reader the source reader
+	 * @param lineSeparator the line separator
+	 * @param offsets the offsets of the regions to format
+	 * @param lengths the lengths of the regions to format
+	 * @return a streams edit
+	 */
+	public StreamsEdit format(Reader reader, String lineSeparator, int[] offsets, int[] lengths) {
+		if (offsets.length != lengths.length) {
+			throw new IllegalArgumentException("Offsets and lengths must have the same number of elements");
+		}
+		try {
+			String content = readContent(reader);
+			IRegion[] regions = new IRegion[offsets.length];
+			for (int i = 0; i < regions.length; i++) {
+				regions[i] = new Region(offsets[i], lengths[i]);
+			}
+			TextEdit edit = this.formatter.format(content, regions, lineSeparator);
+			return new StreamsEdit(content, edit);
+		}
+		catch (Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
 	private String readContent(Reader reader) throws IOException {
 		StringBuilder result = new StringBuilder();
 		char[] buffer = new char[2048];
@@ -32,6 +32,9 @@ public interface EclipseCodeFormatter {
 
 	TextEdit format(int kind, String source, IRegion[] regions, int indentationLevel, String lineSeparator);
 
+	TextEdit format(int kind, String source, IRegion[] regions, int indentationLevel, String lineSeparator,
+			FormatRecorder recorder);
+
 	String createIndentationString(int indentationLevel);
 
 	void setOptions(Map<String, String> options);
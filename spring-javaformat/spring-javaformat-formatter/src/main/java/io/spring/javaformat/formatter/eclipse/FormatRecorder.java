@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter.eclipse;
+
+/**
+ * Internal callback used to record the stages of a single
+ * {@link EclipseCodeFormatter#format(int, String, org.eclipse.jface.text.IRegion[], int, String, FormatRecorder)
+ * format} operation.
+ *
+ * @author Phillip Webb
+ */
+public interface FormatRecorder {
+
+	/**
+	 * Called when a formatting stage completes.
+	 * @param stage the name of the stage
+	 * @param durationNanos the time taken by the stage in nanoseconds
+	 */
+	void stageCompleted(String stage, long durationNanos);
+
+	/**
+	 * Called when the format operation completes.
+	 * @param durationNanos the total time taken in nanoseconds
+	 * @param tokenCount the number of source tokens
+	 * @param wrappableTokenCount the number of tokens that could be wrapped
+	 * @param wrappedTokenCount the number of wrappable tokens that start a new line
+	 */
+	void formatCompleted(long durationNanos, int tokenCount, int wrappableTokenCount, int wrappedTokenCount);
+
+}
@@ -22,17 +22,22 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.spring.javaformat.config.IndentationStyle;
 import io.spring.javaformat.config.JavaFormatConfig;
 
 /**
- * Utility class used to load formatter options.
+ * Utility class used to load formatter options. Loaded options are immutable and cached
+ * for the lifetime of the process since they only depend on the prefix and the
+ * {@link IndentationStyle}.
  *
  * @author Phillip Webb
  */
 public class Options {
 
+	private static final Map<String, Map<String, String>> CACHE = new ConcurrentHashMap<>();
+
 	private final String prefix;
 
 	public Options(String prefix) {
@@ -40,6 +45,11 @@ public class Options {
 	}
 
 	public Map<String, String> load(JavaFormatConfig javaFormatConfig) {
+		String key = this.prefix + ":" + javaFormatConfig.getIndentationStyle();
+		return CACHE.computeIfAbsent(key, (ignore) -> loadOptions(javaFormatConfig));
+	}
+
+	private Map<String, String> loadOptions(JavaFormatConfig javaFormatConfig) {
 		try {
 			Map<String, String> properties = loadProperties();
 			applyConfig(properties, javaFormatConfig);
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter.eclipse;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.text.edits.TextEdit;
+
+/**
+ * Internal thread-safe {@link EclipseCodeFormatter} that borrows delegates from a bounded
+ * pool. Delegates are created on demand and evicted once they have been idle for longer
+ * than the configured timeout. Options are held by the pool and applied to each delegate
+ * when it is created or borrowed.
+ *
+ * @author agent (agent@local)
+ */
+public class PooledEclipseCodeFormatter implements EclipseCodeFormatter {
+
+	private final Supplier<EclipseCodeFormatter> factory;
+
+	private final Semaphore permits;
+
+	private final long idleTimeoutNanos;
+
+	private final Deque<PooledDelegate> idle = new ArrayDeque<>();
+
+	private Map<String, String> options;
+
+	/**
+	 * Create a new {@link PooledEclipseCodeFormatter} instance.
+	 * @param factory factory used to create new delegates
+	 * @param maxSize the maximum number of delegates that can be in use at once
+	 * @param idleTimeoutMillis the time after which an idle delegate is evicted
+	 */
+	public PooledEclipseCodeFormatter(Supplier<EclipseCodeFormatter> factory, int maxSize, long idleTimeoutMillis) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("MaxSize must be positive");
+		}
+		if (idleTimeoutMillis < 0) {
+			throw new IllegalArgumentException("IdleTimeoutMillis must not be negative");
+		}
+		this.factory = factory;
+		this.permits = new Semaphore(maxSize, true);
+		this.idleTimeoutNanos = idleTimeoutMillis * 1000000L;
+	}
+
+	@Override
+	public TextEdit format(int kind, String source, int offset, int length, int indentationLevel,
+			String lineSeparator) {
+		return apply((delegate) -> delegate.format(kind, source, offset, length, indentationLevel, lineSeparator));
+	}
+
+	@Override
+	public TextEdit format(int kind, String source, IRegion[] regions, int indentationLevel, String lineSeparator) {
+		return apply((delegate) -> delegate.format(kind, source, regions, indentationLevel, lineSeparator));
+	}
+
+	@Override
+	public TextEdit format(int kind, String source, IRegion[] regions, int indentationLevel, String lineSeparator,
+			FormatRecorder recorder) {
+		return apply((delegate) -> delegate.format(kind, source, regions, indentationLevel, lineSeparator, recorder));
+	}
+
+	@Override
+	public String createIndentationString(int indentationLevel) {
+		return apply((delegate) -> delegate.createIndentationString(indentationLevel));
+	}
+
+	/**
+	 * Set the options used by all delegates. Delegates that are in use complete their
+	 * current operation with the previous options.
+	 * @param options the options
+	 */
+	@Override
+	public synchronized void setOptions(Map<String, String> options) {
+		this.options = options;
+	}
+
+	/**
+	 * Return the number of idle delegates currently held by the pool.
+	 * @return the idle delegate count
+	 */
+	public synchronized int getIdleCount() {
+		evict(System.nanoTime());
+		return this.idle.size();
+	}
+
+	private <T> T apply(Function<EclipseCodeFormatter, T> action) {
+		PooledDelegate pooled = borrow();
+		try {
+			return action.apply(pooled.delegate);
+		}
+		finally {
+			release(pooled);
+		}
+	}
+
+	private PooledDelegate borrow() {
+		try {
+			this.permits.acquire();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted waiting for formatter", ex);
+		}
+		try {
+			PooledDelegate pooled = pollIdle();
+			pooled = (pooled != null) ? pooled : new PooledDelegate(this.factory.get());
+			pooled.applyOptions(getOptions());
+			return pooled;
+		}
+		catch (RuntimeException | Error ex) {
+			this.permits.release();
+			throw ex;
+		}
+	}
+
+	private synchronized Map<String, String> getOptions() {
+		return this.options;
+	}
+
+	private synchronized PooledDelegate pollIdle() {
+		evict(System.nanoTime());
+		return this.idle.pollFirst();
+	}
+
+	private void release(PooledDelegate pooled) {
+		synchronized (this) {
+			long now = System.nanoTime();
+			pooled.idleSince = now;
+			this.idle.addFirst(pooled);
+			evict(now);
+		}
+		this.permits.release();
+	}
+
+	private void evict(long now) {
+		while (!this.idle.isEmpty() && now - this.idle.peekLast().idleSince >= this.idleTimeoutNanos) {
+			this.idle.pollLast();
+		}
+	}
+
+	/**
+	 * A delegate managed by the pool.
+	 */
+	private static final class PooledDelegate {
+
+		private final EclipseCodeFormatter delegate;
+
+		private Map<String, String> options;
+
+		private long idleSince;
+
+		PooledDelegate(EclipseCodeFormatter delegate) {
+			this.delegate = delegate;
+		}
+
+		void applyOptions(Map<String, String> options) {
+			if (options != null && options != this.options) {
+				this.delegate.setOptions(options);
+				this.options = options;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter.jdk17.eclipse;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import io.spring.javaformat.eclipse.jdt.jdk17.core.dom.ASTNode;
+import io.spring.javaformat.eclipse.jdt.jdk17.core.dom.ASTVisitor;
+import io.spring.javaformat.eclipse.jdt.jdk17.core.dom.AnnotationTypeDeclaration;
+import io.spring.javaformat.eclipse.jdt.jdk17.core.dom.CompilationUnit;
+import io.spring.javaformat.eclipse.jdt.jdk17.core.dom.EnumDeclaration;
+import io.spring.javaformat.eclipse.jdt.jdk17.core.dom.FieldDeclaration;
+import io.spring.javaformat.eclipse.jdt.jdk17.core.dom.ImportDeclaration;
+import io.spring.javaformat.eclipse.jdt.jdk17.core.dom.MethodDeclaration;
+import io.spring.javaformat.eclipse.jdt.jdk17.core.dom.SingleVariableDeclaration;
+import io.spring.javaformat.eclipse.jdt.jdk17.core.dom.TypeDeclaration;
+import io.spring.javaformat.eclipse.jdt.jdk17.core.dom.VariableDeclarationStatement;
+
+/**
+ * {@link ASTVisitor} that dispatches to two delegate visitors during a single traversal.
+ * A delegate that returns {@code false} from a {@code visit} method does not see the
+ * children of that node, but still receives the matching {@code endVisit} call. Only the
+ * {@code visit} and {@code endVisit} methods for the node types used by our preparators
+ * are forwarded.
+ *
+ * @author Phillip Webb
+ */
+class CompositeVisitor extends ASTVisitor {
+
+	private final ASTVisitor first;
+
+	private final ASTVisitor second;
+
+	private ASTNode firstSkipping;
+
+	private ASTNode secondSkipping;
+
+	CompositeVisitor(ASTVisitor first, ASTVisitor second) {
+		this.first = first;
+		this.second = second;
+	}
+
+	@Override
+	public boolean visit(CompilationUnit node) {
+		return visit(node, (delegate) -> delegate.visit(node));
+	}
+
+	@Override
+	public void endVisit(CompilationUnit node) {
+		endVisit(node, (delegate) -> delegate.endVisit(node));
+	}
+
+	@Override
+	public boolean visit(ImportDeclaration node) {
+		return visit(node, (delegate) -> delegate.visit(node));
+	}
+
+	@Override
+	public void endVisit(ImportDeclaration node) {
+		endVisit(node, (delegate) -> delegate.endVisit(node));
+	}
+
+	@Override
+	public boolean visit(TypeDeclaration node) {
+		return visit(node, (delegate) -> delegate.visit(node));
+	}
+
+	@Override
+	public void endVisit(TypeDeclaration node) {
+		endVisit(node, (delegate) -> delegate.endVisit(node));
+	}
+
+	@Override
+	public boolean visit(AnnotationTypeDeclaration node) {
+		return visit(node, (delegate) -> delegate.visit(node));
+	}
+
+	@Override
+	public void endVisit(AnnotationTypeDeclaration node) {
+		endVisit(node, (delegate) -> delegate.endVisit(node));
+	}
+
+	@Override
+	public boolean visit(EnumDeclaration node) {
+		return visit(node, (delegate) -> delegate.visit(node));
+	}
+
+	@Override
+	public void endVisit(EnumDeclaration node) {
+		endVisit(node, (delegate) -> delegate.endVisit(node));
+	}
+
+	@Override
+	public boolean visit(FieldDeclaration node) {
+		return visit(node, (delegate) -> delegate.visit(node));
+	}
+
+	@Override
+	public void endVisit(FieldDeclaration node) {
+		endVisit(node, (delegate) -> delegate.endVisit(node));
+	}
+
+	@Override
+	public boolean visit(MethodDeclaration node) {
+		return visit(node, (delegate) -> delegate.visit(node));
+	}
+
+	@Override
+	public void endVisit(MethodDeclaration node) {
+		endVisit(node, (delegate) -> delegate.endVisit(node));
+	}
+
+	@Override
+	public boolean visit(SingleVariableDeclaration node) {
+		return visit(node, (delegate) -> delegate.visit(node));
+	}
+
+	@Override
+	public void endVisit(SingleVariableDeclaration node) {
+		endVisit(node, (delegate) -> delegate.endVisit(node));
+	}
+
+	@Override
+	public boolean visit(VariableDeclarationStatement node) {
+		return visit(node, (delegate) -> delegate.visit(node));
+	}
+
+	@Override
+	public void endVisit(VariableDeclarationStatement node) {
+		endVisit(node, (delegate) -> delegate.endVisit(node));
+	}
+
+	@Override
+	public void postVisit(ASTNode node) {
+		if (this.firstSkipping == node) {
+			this.firstSkipping = null;
+		}
+		if (this.secondSkipping == node) {
+			this.secondSkipping = null;
+		}
+	}
+
+	private boolean visit(ASTNode node, Predicate<ASTVisitor> visit) {
+		if (this.firstSkipping == null && !visit.test(this.first)) {
+			this.firstSkipping = node;
+		}
+		if (this.secondSkipping == null && !visit.test(this.second)) {
+			this.secondSkipping = node;
+		}
+		return this.firstSkipping == null || this.secondSkipping == null;
+	}
+
+	private void endVisit(ASTNode node, Consumer<ASTVisitor> endVisit) {
+		if (this.firstSkipping == null || this.firstSkipping == node) {
+			endVisit.accept(this.first);
+		}
+		if (this.secondSkipping == null || this.secondSkipping == node) {
+			endVisit.accept(this.second);
+		}
+	}
+
+}
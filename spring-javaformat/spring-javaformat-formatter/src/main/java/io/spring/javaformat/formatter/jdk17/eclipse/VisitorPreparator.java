@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter.jdk17.eclipse;
+
+import io.spring.javaformat.eclipse.jdt.jdk17.core.dom.ASTNode;
+import io.spring.javaformat.eclipse.jdt.jdk17.core.dom.ASTVisitor;
+import io.spring.javaformat.eclipse.jdt.jdk17.internal.formatter.Preparator;
+import io.spring.javaformat.eclipse.jdt.jdk17.internal.formatter.TokenManager;
+
+/**
+ * {@link Preparator} that works by visiting the AST. Visitor preparators can be
+ * {@link CompositeVisitorPreparator combined} so that the AST is only traversed once.
+ *
+ * @author Phillip Webb
+ */
+interface VisitorPreparator extends Preparator {
+
+	@Override
+	default void apply(int kind, TokenManager tokenManager, ASTNode astRoot) {
+		ASTVisitor visitor = getVisitor(kind, tokenManager);
+		if (visitor != null) {
+			astRoot.accept(visitor);
+		}
+	}
+
+	/**
+	 * Return the visitor that should be used to prepare the AST.
+	 * @param kind the format kind
+	 * @param tokenManager the token manager
+	 * @return the visitor or {@code null} if the preparator does not apply to the kind
+	 */
+	ASTVisitor getVisitor(int kind, TokenManager tokenManager);
+
+}
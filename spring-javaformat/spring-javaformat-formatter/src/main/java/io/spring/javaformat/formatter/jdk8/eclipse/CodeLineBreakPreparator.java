@@ -16,7 +16,6 @@
 
 package io.spring.javaformat.formatter.jdk8.eclipse;
 
-import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.ASTNode;
 import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.ASTVisitor;
 import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.AbstractTypeDeclaration;
 import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.AnnotationTypeDeclaration;
@@ -35,14 +34,11 @@ import io.spring.javaformat.eclipse.jdt.jdk8.internal.formatter.TokenManager;
  *
  * @author Phillip Webb
  */
-class CodeLineBreakPreparator implements Preparator {
+class CodeLineBreakPreparator implements VisitorPreparator {
 
 	@Override
-	public void apply(int kind, TokenManager tokenManager, ASTNode astRoot) {
-		if ((kind & CodeFormatter.K_COMPILATION_UNIT) != 0) {
-			ASTVisitor visitor = new Vistor(tokenManager);
-			astRoot.accept(visitor);
-		}
+	public ASTVisitor getVisitor(int kind, TokenManager tokenManager) {
+		return ((kind & CodeFormatter.K_COMPILATION_UNIT) != 0) ? new Vistor(tokenManager) : null;
 	}
 
 	private static class Vistor extends ASTVisitor {
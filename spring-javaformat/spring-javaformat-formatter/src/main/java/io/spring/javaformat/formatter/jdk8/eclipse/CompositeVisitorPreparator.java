@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.formatter.jdk8.eclipse;
+
+import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.ASTNode;
+import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.ASTVisitor;
+import io.spring.javaformat.eclipse.jdt.jdk8.internal.formatter.Preparator;
+import io.spring.javaformat.eclipse.jdt.jdk8.internal.formatter.TokenManager;
+
+/**
+ * {@link Preparator} that applies two {@link VisitorPreparator visitor preparators} using
+ * a single traversal of the AST.
+ *
+ * @author Phillip Webb
+ */
+class CompositeVisitorPreparator implements Preparator {
+
+	private final VisitorPreparator first;
+
+	private final VisitorPreparator second;
+
+	CompositeVisitorPreparator(VisitorPreparator first, VisitorPreparator second) {
+		if (first.getPhase() != second.getPhase()) {
+			throw new IllegalArgumentException("Preparators must use the same phase");
+		}
+		this.first = first;
+		this.second = second;
+	}
+
+	@Override
+	public Phase getPhase() {
+		return this.first.getPhase();
+	}
+
+	@Override
+	public void apply(int kind, TokenManager tokenManager, ASTNode astRoot) {
+		ASTVisitor first = this.first.getVisitor(kind, tokenManager);
+		ASTVisitor second = this.second.getVisitor(kind, tokenManager);
+		if (first != null && second != null) {
+			astRoot.accept(new CompositeVisitor(first, second));
+		}
+		else if (first != null || second != null) {
+			astRoot.accept((first != null) ? first : second);
+		}
+	}
+
+}
@@ -18,10 +18,14 @@ package io.spring.javaformat.formatter.jdk8.eclipse;
 
 import java.util.Map;
 
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.text.edits.TextEdit;
+
 import io.spring.javaformat.config.JavaFormatConfig;
 import io.spring.javaformat.eclipse.jdt.jdk8.internal.formatter.ExtendedCodeFormatter;
 import io.spring.javaformat.eclipse.jdt.jdk8.internal.formatter.Preparator;
 import io.spring.javaformat.formatter.eclipse.EclipseCodeFormatter;
+import io.spring.javaformat.formatter.eclipse.FormatRecorder;
 import io.spring.javaformat.formatter.eclipse.Options;
 
 /**
@@ -34,6 +38,8 @@ public class EclipseJdk8CodeFormatter extends ExtendedCodeFormatter implements E
 
 	private final Map<String, String> appliedOptions;
 
+	private FormatRecorder recorder;
+
 	public EclipseJdk8CodeFormatter(JavaFormatConfig javaFormatConfig) {
 		this(new Options("io.spring.javaformat.eclipse.jdt.jdk8").load(javaFormatConfig));
 	}
@@ -42,8 +48,35 @@ public class EclipseJdk8CodeFormatter extends ExtendedCodeFormatter implements E
 		super(options);
 		this.appliedOptions = options;
 		addPreparator(new JavadocLineBreakPreparator());
-		addPreparator(new CodeLineBreakPreparator());
-		addPreparator(new JSpecifyPreparator());
+		addPreparator(new CompositeVisitorPreparator(new CodeLineBreakPreparator(), new JSpecifyPreparator()));
+	}
+
+	@Override
+	public TextEdit format(int kind, String source, IRegion[] regions, int indentationLevel, String lineSeparator,
+			FormatRecorder recorder) {
+		this.recorder = recorder;
+		try {
+			return format(kind, source, regions, indentationLevel, lineSeparator);
+		}
+		finally {
+			this.recorder = null;
+		}
+	}
+
+	@Override
+	protected boolean isRecordingStages() {
+		return this.recorder != null;
+	}
+
+	@Override
+	protected void stageCompleted(Stage stage, long durationNanos) {
+		this.recorder.stageCompleted(stage.name(), durationNanos);
+	}
+
+	@Override
+	protected void formatCompleted(long durationNanos, int tokenCount, int wrappableTokenCount,
+			int wrappedTokenCount) {
+		this.recorder.formatCompleted(durationNanos, tokenCount, wrappableTokenCount, wrappedTokenCount);
 	}
 
 	@Override
@@ -25,7 +25,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.ASTNode;
 import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.ASTVisitor;
 import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.Annotation;
 import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.CompilationUnit;
@@ -36,10 +35,9 @@ import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.MethodDeclaration;
 import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.SingleVariableDeclaration;
 import io.spring.javaformat.eclipse.jdt.jdk8.core.dom.VariableDeclarationStatement;
 import io.spring.javaformat.eclipse.jdt.jdk8.core.formatter.CodeFormatter;
-import io.spring.javaformat.eclipse.jdt.jdk8.internal.formatter.Preparator;
 import io.spring.javaformat.eclipse.jdt.jdk8.internal.formatter.TokenManager;
 
-public class JSpecifyPreparator implements Preparator {
+public class JSpecifyPreparator implements VisitorPreparator {
 
 	private static final String PACKAGE_NAME = "org.jspecify.annotations";
 
@@ -50,11 +48,8 @@ public class JSpecifyPreparator implements Preparator {
 		.collect(Collectors.toSet());
 
 	@Override
-	public void apply(int kind, TokenManager tokenManager, ASTNode astRoot) {
-		if ((kind & CodeFormatter.K_COMPILATION_UNIT) != 0) {
-			ASTVisitor visitor = new Vistor(tokenManager);
-			astRoot.accept(visitor);
-		}
+	public ASTVisitor getVisitor(int kind, TokenManager tokenManager) {
+		return ((kind & CodeFormatter.K_COMPILATION_UNIT) != 0) ? new Vistor(tokenManager) : null;
 	}
 
 	private static class Vistor extends ASTVisitor {
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.git;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The stage zero entries of a git index file. Stat data is recorded so that blob ids can
+ * be trusted without hashing the working tree file when it has not been touched since the
+ * index was written.
+ *
+ * @author Phillip Webb
+ */
+final class GitIndex {
+
+	private static final int SIGNATURE = 0x44495243;
+
+	private static final int EXTENDED_FLAG = 0x4000;
+
+	private static final int STAGE_MASK = 0x3000;
+
+	private final Map<String, Entry> entries;
+
+	private final long lastModified;
+
+	private GitIndex(Map<String, Entry> entries, long lastModified) {
+		this.entries = entries;
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * Return the id of the blob recorded in the index for the given path if the stat data
+	 * of the file proves that it has not changed.
+	 * @param path the path relative to the work tree using {@code '/'} separators
+	 * @param file the working tree file
+	 * @return the blob id or {@code null}
+	 * @throws IOException on IO error
+	 */
+	String getUnchangedId(String path, File file) throws IOException {
+		Entry entry = this.entries.get(path);
+		if (entry == null || entry.lastModified >= this.lastModified) {
+			return null;
+		}
+		BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+		boolean unchanged = (attributes.size() & 0xFFFFFFFFL) == entry.size
+				&& attributes.lastModifiedTime().toMillis() == entry.lastModified;
+		return unchanged ? entry.id : null;
+	}
+
+	/**
+	 * Load the index file from the given git directory.
+	 * @param gitDir the git directory
+	 * @return the loaded index (empty if there is no index file)
+	 * @throws IOException on IO error
+	 */
+	static GitIndex load(File gitDir) throws IOException {
+		File file = new File(gitDir, "index");
+		if (!file.isFile()) {
+			return new GitIndex(Collections.emptyMap(), 0);
+		}
+		long lastModified = Files.getLastModifiedTime(file.toPath()).toMillis();
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+		if (buffer.getInt() != SIGNATURE) {
+			throw new IOException("Invalid git index " + file);
+		}
+		int version = buffer.getInt();
+		if (version < 2 || version > 4) {
+			throw new IOException("Unsupported git index version " + version);
+		}
+		int count = buffer.getInt();
+		Map<String, Entry> entries = new HashMap<>(count * 2);
+		byte[] previousName = new byte[0];
+		for (int i = 0; i < count; i++) {
+			int start = buffer.position();
+			buffer.position(start + 8);
+			long seconds = buffer.getInt() & 0xFFFFFFFFL;
+			long nanos = buffer.getInt() & 0xFFFFFFFFL;
+			buffer.position(start + 36);
+			long size = buffer.getInt() & 0xFFFFFFFFL;
+			byte[] id = new byte[20];
+			buffer.get(id);
+			int flags = buffer.getShort() & 0xFFFF;
+			if (version >= 3 && (flags & EXTENDED_FLAG) != 0) {
+				buffer.getShort();
+			}
+			byte[] name;
+			if (version == 4) {
+				int strip = readOffset(buffer);
+				byte[] suffix = readNullTerminated(buffer);
+				int prefixLength = previousName.length - strip;
+				name = new byte[prefixLength + suffix.length];
+				System.arraycopy(previousName, 0, name, 0, prefixLength);
+				System.arraycopy(suffix, 0, name, prefixLength, suffix.length);
+			}
+			else {
+				name = readNullTerminated(buffer);
+				int length = buffer.position() - start;
+				buffer.position(start + ((length + 7) & ~7));
+			}
+			previousName = name;
+			if ((flags & STAGE_MASK) == 0) {
+				long entryLastModified = seconds * 1000 + nanos / 1000000;
+				entries.put(new String(name, StandardCharsets.UTF_8),
+						new Entry(GitObject.toHex(id, 0, id.length), size, entryLastModified));
+			}
+		}
+		return new GitIndex(entries, lastModified);
+	}
+
+	private static int readOffset(ByteBuffer buffer) {
+		int b = buffer.get() & 0xFF;
+		int value = b & 0x7F;
+		while ((b & 0x80) != 0) {
+			b = buffer.get() & 0xFF;
+			value = ((value + 1) << 7) | (b & 0x7F);
+		}
+		return value;
+	}
+
+	private static byte[] readNullTerminated(ByteBuffer buffer) {
+		int start = buffer.position();
+		int end = start;
+		while (buffer.get(end) != 0) {
+			end++;
+		}
+		byte[] bytes = new byte[end - start];
+		buffer.get(bytes);
+		buffer.get();
+		return bytes;
+	}
+
+	/**
+	 * A single index entry.
+	 */
+	private static final class Entry {
+
+		private final String id;
+
+		private final long size;
+
+		private final long lastModified;
+
+		Entry(String id, long size, long lastModified) {
+			this.id = id;
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.git;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A raw object read from a git object database.
+ *
+ * @author Phillip Webb
+ */
+final class GitObject {
+
+	static final String COMMIT = "commit";
+
+	static final String TREE = "tree";
+
+	static final String BLOB = "blob";
+
+	static final String TAG = "tag";
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private final String type;
+
+	private final byte[] data;
+
+	GitObject(String type, byte[] data) {
+		this.type = type;
+		this.data = data;
+	}
+
+	String getType() {
+		return this.type;
+	}
+
+	byte[] getData() {
+		return this.data;
+	}
+
+	/**
+	 * Return the data of this object, checking that it is of the expected type.
+	 * @param id the object id (used in error messages)
+	 * @param expectedType the expected type
+	 * @return the object data
+	 * @throws IOException if the object is not of the expected type
+	 */
+	byte[] getData(String id, String expectedType) throws IOException {
+		if (!expectedType.equals(this.type)) {
+			throw new IOException("Object " + id + " is a " + this.type + " not a " + expectedType);
+		}
+		return this.data;
+	}
+
+	static String toHex(byte[] bytes, int offset, int length) {
+		char[] hex = new char[length * 2];
+		for (int i = 0; i < length; i++) {
+			int b = bytes[offset + i];
+			hex[i * 2] = HEX_DIGITS[(b >> 4) & 0xF];
+			hex[i * 2 + 1] = HEX_DIGITS[b & 0xF];
+		}
+		return new String(hex);
+	}
+
+	static byte[] fromHex(String hex) {
+		byte[] bytes = new byte[hex.length() / 2];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+		}
+		return bytes;
+	}
+
+	static boolean isId(String value) {
+		if (value == null || value.length() != 40) {
+			return false;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			if (Character.digit(value.charAt(i), 16) == -1) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Return the id that git would use for a blob with the given content.
+	 * @param content the blob content
+	 * @return the blob id
+	 */
+	static String blobId(byte[] content) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			digest.update((BLOB + " " + content.length + "\0").getBytes(StandardCharsets.US_ASCII));
+			byte[] hash = digest.digest(content);
+			return toHex(hash, 0, hash.length);
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.git;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal read-only view of a local git repository that can be used to find files that
+ * have changed since a given commit. Refs, the index and the object store are read
+ * directly from disk so neither a {@code git} executable nor an additional library is
+ * required.
+ * <p>
+ * This class is internal to the Maven and Gradle plugins and is not intended to be used
+ * directly.
+ *
+ * @author Phillip Webb
+ */
+public final class GitRepository implements Closeable {
+
+	private static final String GITDIR_PREFIX = "gitdir:";
+
+	private static final String SYMBOLIC_REF_PREFIX = "ref:";
+
+	private static final String TREE_MODE = "40000";
+
+	private static final int MAX_SYMBOLIC_REF_DEPTH = 10;
+
+	private final Path workTree;
+
+	private final File gitDir;
+
+	private final File commonDir;
+
+	private final ObjectDatabase objects;
+
+	private final Map<String, Map<String, TreeEntry>> trees = new HashMap<>();
+
+	private GitIndex index;
+
+	private GitRepository(Path workTree, File gitDir, File commonDir) throws IOException {
+		this.workTree = workTree;
+		this.gitDir = gitDir;
+		this.commonDir = commonDir;
+		this.objects = new ObjectDatabase(new File(commonDir, "objects"));
+	}
+
+	/**
+	 * Return the work tree of the repository.
+	 * @return the work tree directory
+	 */
+	public File getWorkTree() {
+		return this.workTree.toFile();
+	}
+
+	/**
+	 * Resolve the given revision to a commit id. Full object ids, branch, tag and remote
+	 * names and {@code HEAD} are supported, optionally followed by {@code ~<n>} or
+	 * {@code ^} to select an ancestor along the first parent.
+	 * @param revision the revision to resolve
+	 * @return the commit id
+	 * @throws IOException if the revision cannot be resolved
+	 */
+	public synchronized String resolve(String revision) throws IOException {
+		int ancestorIndex = indexOfAncestorSuffix(revision);
+		String ref = (ancestorIndex != -1) ? revision.substring(0, ancestorIndex) : revision;
+		String id = resolveRef(ref);
+		if (id == null) {
+			throw new IOException("Unable to resolve git revision '" + revision + "'");
+		}
+		id = peelToCommit(id);
+		if (ancestorIndex != -1) {
+			id = walkFirstParents(id, getAncestorCount(revision, ancestorIndex));
+		}
+		return id;
+	}
+
+	private int indexOfAncestorSuffix(String revision) {
+		int tilde = revision.indexOf('~');
+		int caret = revision.indexOf('^');
+		if (tilde == -1 || caret == -1) {
+			return Math.max(tilde, caret);
+		}
+		return Math.min(tilde, caret);
+	}
+
+	private int getAncestorCount(String revision, int index) throws IOException {
+		int count = 0;
+		int i = index;
+		while (i < revision.length()) {
+			char operator = revision.charAt(i++);
+			int numberStart = i;
+			while (i < revision.length() && Character.isDigit(revision.charAt(i))) {
+				i++;
+			}
+			int number = (i > numberStart) ? Integer.parseInt(revision.substring(numberStart, i)) : 1;
+			if (operator == '~') {
+				count += number;
+			}
+			else if (operator == '^' && number == 1) {
+				count++;
+			}
+			else if (!(operator == '^' && number == 0)) {
+				throw new IOException("Unsupported git revision '" + revision + "'");
+			}
+		}
+		return count;
+	}
+
+	private String walkFirstParents(String id, int count) throws IOException {
+		for (int i = 0; i < count; i++) {
+			String parent = getCommitHeader(id, "parent");
+			if (parent == null) {
+				throw new IOException("Commit " + id + " has no parent");
+			}
+			id = parent;
+		}
+		return id;
+	}
+
+	private String resolveRef(String ref) throws IOException {
+		if (GitObject.isId(ref)) {
+			return ref.toLowerCase();
+		}
+		String[] candidates = { ref, "refs/" + ref, "refs/tags/" + ref, "refs/heads/" + ref, "refs/remotes/" + ref,
+				"refs/remotes/" + ref + "/HEAD" };
+		for (String candidate : candidates) {
+			String id = readRef(candidate, 0);
+			if (id != null) {
+				return id;
+			}
+		}
+		return null;
+	}
+
+	private String readRef(String name, int depth) throws IOException {
+		if (depth > MAX_SYMBOLIC_REF_DEPTH) {
+			throw new IOException("Too many levels of symbolic refs for '" + name + "'");
+		}
+		String value = readLooseRef(name);
+		if (value == null) {
+			value = readPackedRef(name);
+		}
+		if (value != null && value.startsWith(SYMBOLIC_REF_PREFIX)) {
+			return readRef(value.substring(SYMBOLIC_REF_PREFIX.length()).trim(), depth + 1);
+		}
+		return (value != null && GitObject.isId(value)) ? value : null;
+	}
+
+	private String readLooseRef(String name) throws IOException {
+		for (File directory : new File[] { this.gitDir, this.commonDir }) {
+			File file = new File(directory, name);
+			if (file.isFile()) {
+				return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+			}
+		}
+		return null;
+	}
+
+	private String readPackedRef(String name) throws IOException {
+		File packedRefs = new File(this.commonDir, "packed-refs");
+		if (!packedRefs.isFile()) {
+			return null;
+		}
+		for (String line : Files.readAllLines(packedRefs.toPath(), StandardCharsets.UTF_8)) {
+			if (!line.startsWith("#") && !line.startsWith("^") && line.length() > 41
+					&& line.substring(41).equals(name)) {
+				return line.substring(0, 40);
+			}
+		}
+		return null;
+	}
+
+	private String peelToCommit(String id) throws IOException {
+		GitObject object = this.objects.read(id);
+		while (GitObject.TAG.equals(object.getType())) {
+			id = getHeader(object.getData(), "object");
+			object = this.objects.read(id);
+		}
+		object.getData(id, GitObject.COMMIT);
+		return id;
+	}
+
+	private String getCommitHeader(String commitId, String name) throws IOException {
+		return getHeader(this.objects.read(commitId).getData(commitId, GitObject.COMMIT), name);
+	}
+
+	private String getHeader(byte[] data, String name) {
+		String prefix = name + " ";
+		int start = 0;
+		while (start < data.length && data[start] != '\n') {
+			int end = start;
+			while (end < data.length && data[end] != '\n') {
+				end++;
+			}
+			String line = new String(data, start, end - start, StandardCharsets.UTF_8);
+			if (line.startsWith(prefix)) {
+				return line.substring(prefix.length()).trim();
+			}
+			start = end + 1;
+		}
+		return null;
+	}
+
+	/**
+	 * Return the files from the given candidates that differ from their content in the
+	 * given revision. Files that are untracked, not present in the revision or outside of
+	 * the work tree are always considered changed.
+	 * @param revision the revision to compare against
+	 * @param files the candidate files
+	 * @return the changed files in the order they were provided
+	 * @throws IOException on IO error
+	 */
+	public synchronized List<File> getChangedFiles(String revision, Iterable<File> files) throws IOException {
+		String treeId = getCommitHeader(resolve(revision), "tree");
+		List<File> changed = new ArrayList<>();
+		for (File file : files) {
+			if (isChanged(treeId, file)) {
+				changed.add(file);
+			}
+		}
+		return changed;
+	}
+
+	private boolean isChanged(String treeId, File file) throws IOException {
+		Path path = file.toPath().toRealPath();
+		if (!path.startsWith(this.workTree)) {
+			return true;
+		}
+		String relativePath = this.workTree.relativize(path).toString().replace(File.separatorChar, '/');
+		String expectedId = findBlobId(treeId, relativePath);
+		if (expectedId == null) {
+			return true;
+		}
+		String actualId = getIndex().getUnchangedId(relativePath, file);
+		if (actualId == null) {
+			actualId = GitObject.blobId(Files.readAllBytes(path));
+		}
+		return !expectedId.equals(actualId);
+	}
+
+	private String findBlobId(String treeId, String path) throws IOException {
+		String[] segments = path.split("/");
+		String id = treeId;
+		for (int i = 0; i < segments.length; i++) {
+			TreeEntry entry = getTree(id).get(segments[i]);
+			boolean last = (i == segments.length - 1);
+			if (entry == null || entry.isTree() == last) {
+				return null;
+			}
+			id = entry.id;
+		}
+		return id;
+	}
+
+	private Map<String, TreeEntry> getTree(String id) throws IOException {
+		Map<String, TreeEntry> tree = this.trees.get(id);
+		if (tree == null) {
+			tree = parseTree(this.objects.read(id).getData(id, GitObject.TREE));
+			this.trees.put(id, tree);
+		}
+		return tree;
+	}
+
+	private Map<String, TreeEntry> parseTree(byte[] data) {
+		Map<String, TreeEntry> entries = new HashMap<>();
+		int position = 0;
+		while (position < data.length) {
+			int space = position;
+			while (data[space] != ' ') {
+				space++;
+			}
+			int nul = space + 1;
+			while (data[nul] != 0) {
+				nul++;
+			}
+			String mode = new String(data, position, space - position, StandardCharsets.US_ASCII);
+			String name = new String(data, space + 1, nul - space - 1, StandardCharsets.UTF_8);
+			entries.put(name, new TreeEntry(mode, GitObject.toHex(data, nul + 1, 20)));
+			position = nul + 21;
+		}
+		return Collections.unmodifiableMap(entries);
+	}
+
+	private GitIndex getIndex() throws IOException {
+		if (this.index == null) {
+			this.index = GitIndex.load(this.gitDir);
+		}
+		return this.index;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.objects.close();
+	}
+
+	/**
+	 * Find the git repository that contains the given directory.
+	 * @param directory the directory to search from
+	 * @return the repository or {@code null} if the directory is not inside a git work tree
+	 * @throws IOException on IO error
+	 */
+	public static GitRepository find(File directory) throws IOException {
+		Path candidate = directory.toPath().toRealPath();
+		while (candidate != null) {
+			Path dotGit = candidate.resolve(".git");
+			File gitDir = getGitDir(dotGit);
+			if (gitDir != null) {
+				File commonDir = getCommonDir(gitDir);
+				return new GitRepository(candidate, gitDir, commonDir);
+			}
+			candidate = candidate.getParent();
+		}
+		return null;
+	}
+
+	private static File getGitDir(Path dotGit) throws IOException {
+		if (Files.isDirectory(dotGit)) {
+			return dotGit.toFile();
+		}
+		if (Files.isRegularFile(dotGit)) {
+			String content = new String(Files.readAllBytes(dotGit), StandardCharsets.UTF_8).trim();
+			if (content.startsWith(GITDIR_PREFIX)) {
+				Path gitDir = dotGit.getParent().resolve(content.substring(GITDIR_PREFIX.length()).trim());
+				return gitDir.normalize().toFile();
+			}
+		}
+		return null;
+	}
+
+	private static File getCommonDir(File gitDir) throws IOException {
+		File commonDirFile = new File(gitDir, "commondir");
+		if (!commonDirFile.isFile()) {
+			return gitDir;
+		}
+		String commonDir = new String(Files.readAllBytes(commonDirFile.toPath()), StandardCharsets.UTF_8).trim();
+		return gitDir.toPath().resolve(commonDir).normalize().toFile();
+	}
+
+	/**
+	 * An entry in a tree object.
+	 */
+	private static final class TreeEntry {
+
+		private final String mode;
+
+		private final String id;
+
+		TreeEntry(String mode, String id) {
+			this.mode = mode;
+			this.id = id;
+		}
+
+		boolean isTree() {
+			return TREE_MODE.equals(this.mode);
+		}
+
+	}
+
+}
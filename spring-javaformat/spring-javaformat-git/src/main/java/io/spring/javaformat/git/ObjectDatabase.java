@@ -0,0 +1,163 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.git;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Read-only access to the loose and packed objects of a git repository.
+ *
+ * @author Phillip Webb
+ */
+final class ObjectDatabase implements Closeable {
+
+	private final File objectsDirectory;
+
+	private final List<ObjectDatabase> alternates = new ArrayList<>();
+
+	private List<PackFile> packs;
+
+	ObjectDatabase(File objectsDirectory) throws IOException {
+		this(objectsDirectory, 0);
+	}
+
+	private ObjectDatabase(File objectsDirectory, int depth) throws IOException {
+		this.objectsDirectory = objectsDirectory;
+		File alternatesFile = new File(objectsDirectory, "info/alternates");
+		if (depth < 5 && alternatesFile.isFile()) {
+			for (String line : Files.readAllLines(alternatesFile.toPath(), StandardCharsets.UTF_8)) {
+				line = line.trim();
+				if (!line.isEmpty() && !line.startsWith("#")) {
+					File alternate = new File(line);
+					alternate = alternate.isAbsolute() ? alternate : new File(objectsDirectory, line);
+					this.alternates.add(new ObjectDatabase(alternate, depth + 1));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Read the object with the given id.
+	 * @param id the object id
+	 * @return the object
+	 * @throws IOException if the object cannot be read or does not exist
+	 */
+	GitObject read(String id) throws IOException {
+		GitObject object = find(id);
+		if (object == null) {
+			throw new IOException("Missing git object " + id);
+		}
+		return object;
+	}
+
+	private GitObject find(String id) throws IOException {
+		GitObject object = readLoose(id);
+		if (object != null) {
+			return object;
+		}
+		for (PackFile pack : getPacks()) {
+			object = pack.read(id);
+			if (object != null) {
+				return object;
+			}
+		}
+		for (ObjectDatabase alternate : this.alternates) {
+			object = alternate.find(id);
+			if (object != null) {
+				return object;
+			}
+		}
+		return null;
+	}
+
+	private GitObject readLoose(String id) throws IOException {
+		File file = new File(this.objectsDirectory, id.substring(0, 2) + File.separator + id.substring(2));
+		if (!file.isFile()) {
+			return null;
+		}
+		byte[] bytes;
+		try (InputStream inputStream = new InflaterInputStream(new FileInputStream(file))) {
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = inputStream.read(buffer)) != -1) {
+				outputStream.write(buffer, 0, read);
+			}
+			bytes = outputStream.toByteArray();
+		}
+		int space = indexOf(bytes, (byte) ' ', 0);
+		int nul = indexOf(bytes, (byte) 0, space + 1);
+		if (space == -1 || nul == -1) {
+			throw new IOException("Corrupt loose object " + file);
+		}
+		String type = new String(bytes, 0, space, StandardCharsets.US_ASCII);
+		return new GitObject(type, Arrays.copyOfRange(bytes, nul + 1, bytes.length));
+	}
+
+	private int indexOf(byte[] bytes, byte value, int from) {
+		for (int i = Math.max(from, 0); i < bytes.length; i++) {
+			if (bytes[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private synchronized List<PackFile> getPacks() {
+		if (this.packs == null) {
+			List<PackFile> packs = new ArrayList<>();
+			File[] indexFiles = new File(this.objectsDirectory, "pack")
+				.listFiles((file) -> file.getName().endsWith(".idx"));
+			if (indexFiles != null) {
+				Arrays.sort(indexFiles);
+				for (File indexFile : indexFiles) {
+					String name = indexFile.getName();
+					File packFile = new File(indexFile.getParentFile(), name.substring(0, name.length() - 4) + ".pack");
+					if (packFile.isFile()) {
+						packs.add(new PackFile(indexFile, packFile, this));
+					}
+				}
+			}
+			this.packs = packs;
+		}
+		return this.packs;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (this.packs != null) {
+			for (PackFile pack : this.packs) {
+				pack.close();
+			}
+		}
+		for (ObjectDatabase alternate : this.alternates) {
+			alternate.close();
+		}
+	}
+
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.git;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A git pack file and its version 2 index.
+ *
+ * @author Phillip Webb
+ */
+final class PackFile implements Closeable {
+
+	private static final int INDEX_MAGIC = 0xff744f63;
+
+	private static final int OBJ_COMMIT = 1;
+
+	private static final int OBJ_TREE = 2;
+
+	private static final int OBJ_BLOB = 3;
+
+	private static final int OBJ_TAG = 4;
+
+	private static final int OBJ_OFS_DELTA = 6;
+
+	private static final int OBJ_REF_DELTA = 7;
+
+	private static final int MAX_CACHED_BASES = 64;
+
+	private final File indexFile;
+
+	private final File packFile;
+
+	private final ObjectDatabase database;
+
+	private final Map<Long, GitObject> baseCache = new LinkedHashMap<Long, GitObject>(16, 0.75f, true) {
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, GitObject> eldest) {
+			return size() > MAX_CACHED_BASES;
+		}
+
+	};
+
+	private ByteBuffer index;
+
+	private int objectCount;
+
+	private FileChannel channel;
+
+	PackFile(File indexFile, File packFile, ObjectDatabase database) {
+		this.indexFile = indexFile;
+		this.packFile = packFile;
+		this.database = database;
+	}
+
+	/**
+	 * Read the object with the given id from this pack.
+	 * @param id the object id
+	 * @return the object or {@code null} if the pack does not contain the object
+	 * @throws IOException on IO error
+	 */
+	synchronized GitObject read(String id) throws IOException {
+		long offset = findOffset(GitObject.fromHex(id));
+		return (offset != -1) ? readAt(offset) : null;
+	}
+
+	private long findOffset(byte[] id) throws IOException {
+		ByteBuffer index = getIndex();
+		int first = id[0] & 0xFF;
+		int low = (first != 0) ? index.getInt(8 + (first - 1) * 4) : 0;
+		int high = index.getInt(8 + first * 4) - 1;
+		int idsStart = 8 + 256 * 4;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int compare = compare(index, idsStart + mid * 20, id);
+			if (compare < 0) {
+				low = mid + 1;
+			}
+			else if (compare > 0) {
+				high = mid - 1;
+			}
+			else {
+				int offsetsStart = idsStart + this.objectCount * 20 + this.objectCount * 4;
+				long offset = index.getInt(offsetsStart + mid * 4) & 0xFFFFFFFFL;
+				if ((offset & 0x80000000L) != 0) {
+					int largeOffsetsStart = offsetsStart + this.objectCount * 4;
+					offset = index.getLong(largeOffsetsStart + (int) (offset & 0x7FFFFFFFL) * 8);
+				}
+				return offset;
+			}
+		}
+		return -1;
+	}
+
+	private int compare(ByteBuffer index, int position, byte[] id) {
+		for (int i = 0; i < id.length; i++) {
+			int difference = (index.get(position + i) & 0xFF) - (id[i] & 0xFF);
+			if (difference != 0) {
+				return difference;
+			}
+		}
+		return 0;
+	}
+
+	private ByteBuffer getIndex() throws IOException {
+		if (this.index == null) {
+			ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(this.indexFile.toPath()));
+			if (index.getInt(0) != INDEX_MAGIC || index.getInt(4) != 2) {
+				throw new IOException("Unsupported pack index " + this.indexFile);
+			}
+			this.objectCount = index.getInt(8 + 255 * 4);
+			this.index = index;
+		}
+		return this.index;
+	}
+
+	private GitObject readAt(long offset) throws IOException {
+		GitObject cached = this.baseCache.get(offset);
+		if (cached != null) {
+			return cached;
+		}
+		PackInputStream input = new PackInputStream(getChannel(), offset);
+		int b = input.read();
+		int type = (b >> 4) & 0x7;
+		long size = b & 0xF;
+		int shift = 4;
+		while ((b & 0x80) != 0) {
+			b = input.read();
+			size |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		}
+		GitObject object;
+		switch (type) {
+			case OBJ_COMMIT:
+				object = new GitObject(GitObject.COMMIT, inflate(input, size));
+				break;
+			case OBJ_TREE:
+				object = new GitObject(GitObject.TREE, inflate(input, size));
+				break;
+			case OBJ_BLOB:
+				object = new GitObject(GitObject.BLOB, inflate(input, size));
+				break;
+			case OBJ_TAG:
+				object = new GitObject(GitObject.TAG, inflate(input, size));
+				break;
+			case OBJ_OFS_DELTA:
+				b = input.read();
+				long distance = b & 0x7F;
+				while ((b & 0x80) != 0) {
+					b = input.read();
+					distance = ((distance + 1) << 7) | (b & 0x7F);
+				}
+				object = applyDelta(readAt(offset - distance), inflate(input, size));
+				break;
+			case OBJ_REF_DELTA:
+				byte[] baseId = new byte[20];
+				input.readFully(baseId);
+				byte[] delta = inflate(input, size);
+				object = applyDelta(this.database.read(GitObject.toHex(baseId, 0, baseId.length)), delta);
+				break;
+			default:
+				throw new IOException("Unsupported object type " + type + " in " + this.packFile);
+		}
+		this.baseCache.put(offset, object);
+		return object;
+	}
+
+	private byte[] inflate(InputStream input, long size) throws IOException {
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("Object too large in " + this.packFile);
+		}
+		byte[] result = new byte[(int) size];
+		Inflater inflater = new Inflater();
+		try {
+			byte[] buffer = new byte[8192];
+			int length = 0;
+			while (length < result.length && !inflater.finished()) {
+				if (inflater.needsInput()) {
+					int read = input.read(buffer);
+					if (read == -1) {
+						throw new IOException("Unexpected end of " + this.packFile);
+					}
+					inflater.setInput(buffer, 0, read);
+				}
+				int inflated = inflater.inflate(result, length, result.length - length);
+				length += inflated;
+				if (inflated == 0 && inflater.needsDictionary()) {
+					throw new IOException("Corrupt object in " + this.packFile);
+				}
+			}
+			if (length != result.length) {
+				throw new IOException("Truncated object in " + this.packFile);
+			}
+			return result;
+		}
+		catch (DataFormatException ex) {
+			throw new IOException("Corrupt object in " + this.packFile, ex);
+		}
+		finally {
+			inflater.end();
+		}
+	}
+
+	private GitObject applyDelta(GitObject base, byte[] delta) throws IOException {
+		byte[] source = base.getData();
+		int[] position = { 0 };
+		long sourceSize = readVarInt(delta, position);
+		long resultSize = readVarInt(delta, position);
+		if (sourceSize != source.length) {
+			throw new IOException("Delta base size mismatch in " + this.packFile);
+		}
+		ByteArrayOutputStream result = new ByteArrayOutputStream((int) resultSize);
+		int i = position[0];
+		while (i < delta.length) {
+			int command = delta[i++] & 0xFF;
+			if ((command & 0x80) != 0) {
+				int copyOffset = 0;
+				int copySize = 0;
+				for (int bit = 0; bit < 4; bit++) {
+					if ((command & (1 << bit)) != 0) {
+						copyOffset |= (delta[i++] & 0xFF) << (bit * 8);
+					}
+				}
+				for (int bit = 0; bit < 3; bit++) {
+					if ((command & (0x10 << bit)) != 0) {
+						copySize |= (delta[i++] & 0xFF) << (bit * 8);
+					}
+				}
+				copySize = (copySize != 0) ? copySize : 0x10000;
+				result.write(source, copyOffset, copySize);
+			}
+			else if (command != 0) {
+				result.write(delta, i, command);
+				i += command;
+			}
+			else {
+				throw new IOException("Unsupported delta command in " + this.packFile);
+			}
+		}
+		if (result.size() != resultSize) {
+			throw new IOException("Delta result size mismatch in " + this.packFile);
+		}
+		return new GitObject(base.getType(), result.toByteArray());
+	}
+
+	private long readVarInt(byte[] bytes, int[] position) {
+		long value = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = bytes[position[0]++] & 0xFF;
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		}
+		while ((b & 0x80) != 0);
+		return value;
+	}
+
+	private FileChannel getChannel() throws IOException {
+		if (this.channel == null) {
+			this.channel = FileChannel.open(this.packFile.toPath(), StandardOpenOption.READ);
+		}
+		return this.channel;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (this.channel != null) {
+			this.channel.close();
+			this.channel = null;
+		}
+	}
+
+	/**
+	 * {@link InputStream} that reads from a position in the pack file.
+	 */
+	private static final class PackInputStream extends InputStream {
+
+		private final FileChannel channel;
+
+		private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+		private long position;
+
+		PackInputStream(FileChannel channel, long position) {
+			this.channel = channel;
+			this.position = position;
+			this.buffer.limit(0);
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (!fill()) {
+				throw new IOException("Unexpected end of pack");
+			}
+			return this.buffer.get() & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			if (!fill()) {
+				return -1;
+			}
+			int read = Math.min(length, this.buffer.remaining());
+			this.buffer.get(bytes, offset, read);
+			return read;
+		}
+
+		void readFully(byte[] bytes) throws IOException {
+			int offset = 0;
+			while (offset < bytes.length) {
+				int read = read(bytes, offset, bytes.length - offset);
+				if (read == -1) {
+					throw new IOException("Unexpected end of pack");
+				}
+				offset += read;
+			}
+		}
+
+		private boolean fill() throws IOException {
+			if (this.buffer.hasRemaining()) {
+				return true;
+			}
+			this.buffer.clear();
+			int read = this.channel.read(this.buffer, this.position);
+			this.buffer.flip();
+			if (read <= 0) {
+				return false;
+			}
+			this.position += read;
+			return true;
+		}
+
+	}
+
+}
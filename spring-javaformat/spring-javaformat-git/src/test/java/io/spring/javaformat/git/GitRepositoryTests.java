@@ -0,0 +1,211 @@
+/*
+ * Copyright 2017-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.javaformat.git;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+/**
+ * Tests for {@link GitRepository}.
+ *
+ * @author Phillip Webb
+ */
+public class GitRepositoryTests {
+
+	@TempDir
+	public File temp;
+
+	private File workTree;
+
+	@BeforeEach
+	void setup() throws Exception {
+		this.workTree = new File(this.temp, "repo");
+		this.workTree.mkdirs();
+		git("init", "-q");
+		git("config", "user.email", "test@example.com");
+		git("config", "user.name", "Test");
+		git("config", "commit.gpgsign", "false");
+		git("config", "core.autocrlf", "false");
+		git("config", "gc.auto", "0");
+	}
+
+	@Test
+	void findWhenNotInRepositoryReturnsNull() throws Exception {
+		File directory = new File(this.temp, "other");
+		directory.mkdirs();
+		assertThat(GitRepository.find(directory)).isNull();
+	}
+
+	@Test
+	void findFromSubdirectoryFindsRepository() throws Exception {
+		File directory = new File(this.workTree, "src/main");
+		directory.mkdirs();
+		try (GitRepository repository = GitRepository.find(directory)) {
+			assertThat(repository.getWorkTree()).isEqualTo(this.workTree.getCanonicalFile());
+		}
+	}
+
+	@Test
+	void getChangedFilesWithLooseObjects() throws Exception {
+		List<File> files = createAndCommitFiles();
+		write("src/b.txt", "changed");
+		File untracked = write("src/c.txt", "untracked");
+		files.add(untracked);
+		try (GitRepository repository = GitRepository.find(this.workTree)) {
+			assertThat(repository.getChangedFiles("HEAD", files)).containsExactly(files.get(1), untracked);
+		}
+	}
+
+	@Test
+	void getChangedFilesWithPackedObjectsAndDeltas() throws Exception {
+		StringBuilder large = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			large.append("line ").append(i).append("\n");
+		}
+		File file = write("large.txt", large.toString());
+		File other = write("other.txt", "other");
+		commit("first");
+		write("large.txt", large.toString().replace("line 1000\n", "line one thousand\n"));
+		commit("second");
+		git("gc", "-q", "--aggressive");
+		assertThat(new File(this.workTree, ".git/objects/pack").list((dir, name) -> name.endsWith(".pack"))).hasSize(1);
+		List<File> files = Arrays.asList(file, other);
+		try (GitRepository repository = GitRepository.find(this.workTree)) {
+			assertThat(repository.getChangedFiles("HEAD", files)).isEmpty();
+			assertThat(repository.getChangedFiles("HEAD~1", files)).containsExactly(file);
+			assertThat(repository.getChangedFiles("HEAD^", files)).containsExactly(file);
+		}
+	}
+
+	@Test
+	void getChangedFilesWhenTouchedButUnchangedReturnsEmpty() throws Exception {
+		List<File> files = createAndCommitFiles();
+		for (File file : files) {
+			Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(System.currentTimeMillis() + 10000));
+		}
+		try (GitRepository repository = GitRepository.find(this.workTree)) {
+			assertThat(repository.getChangedFiles("HEAD", files)).isEmpty();
+		}
+	}
+
+	@Test
+	void getChangedFilesAgainstBranchAndTags() throws Exception {
+		List<File> files = createAndCommitFiles();
+		git("branch", "base");
+		git("tag", "light");
+		git("tag", "-a", "annotated", "-m", "annotated");
+		write("src/a.txt", "changed");
+		commit("change");
+		git("pack-refs", "--all");
+		try (GitRepository repository = GitRepository.find(this.workTree)) {
+			assertThat(repository.getChangedFiles("base", files)).containsExactly(files.get(0));
+			assertThat(repository.getChangedFiles("refs/heads/base", files)).containsExactly(files.get(0));
+			assertThat(repository.getChangedFiles("light", files)).containsExactly(files.get(0));
+			assertThat(repository.getChangedFiles("annotated", files)).containsExactly(files.get(0));
+			String id = repository.resolve("base");
+			assertThat(repository.getChangedFiles(id, files)).containsExactly(files.get(0));
+		}
+	}
+
+	@Test
+	void getChangedFilesWhenFileOutsideWorkTreeReturnsFile() throws Exception {
+		List<File> files = new ArrayList<>(createAndCommitFiles());
+		File outside = new File(this.temp, "outside.txt");
+		Files.write(outside.toPath(), "outside".getBytes(StandardCharsets.UTF_8));
+		files.add(outside);
+		try (GitRepository repository = GitRepository.find(this.workTree)) {
+			assertThat(repository.getChangedFiles("HEAD", files)).containsExactly(outside);
+		}
+	}
+
+	@Test
+	void getChangedFilesInLinkedWorkTree() throws Exception {
+		createAndCommitFiles();
+		File linked = new File(this.temp, "linked");
+		git("worktree", "add", "-q", linked.getAbsolutePath());
+		File file = new File(linked, "src/b.txt");
+		Files.write(file.toPath(), "changed".getBytes(StandardCharsets.UTF_8));
+		List<File> files = Arrays.asList(new File(linked, "src/a.txt"), file);
+		try (GitRepository repository = GitRepository.find(linked)) {
+			assertThat(repository.getChangedFiles("HEAD", files)).containsExactly(file);
+		}
+	}
+
+	@Test
+	void resolveWhenUnknownThrowsException() throws Exception {
+		createAndCommitFiles();
+		try (GitRepository repository = GitRepository.find(this.workTree)) {
+			assertThatIOException().isThrownBy(() -> repository.resolve("missing"))
+				.withMessageContaining("Unable to resolve git revision 'missing'");
+		}
+	}
+
+	private List<File> createAndCommitFiles() throws Exception {
+		List<File> files = new ArrayList<>();
+		files.add(write("src/a.txt", "a"));
+		files.add(write("src/b.txt", "b"));
+		commit("initial");
+		return files;
+	}
+
+	private File write(String path, String content) throws IOException {
+		File file = new File(this.workTree, path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private void commit(String message) throws Exception {
+		git("add", "-A");
+		git("commit", "-q", "-m", message);
+	}
+
+	private void git(String... arguments) throws Exception {
+		List<String> command = new ArrayList<>();
+		command.add("git");
+		command.addAll(Arrays.asList(arguments));
+		Process process = new ProcessBuilder(command).directory(this.workTree).redirectErrorStream(true).start();
+		String output = read(process.getInputStream());
+		assertThat(process.waitFor()).as(output).isZero();
+	}
+
+	private String read(InputStream inputStream) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int read;
+		while ((read = inputStream.read(buffer)) != -1) {
+			outputStream.write(buffer, 0, read);
+		}
+		return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+}